@@ -0,0 +1,48 @@
+package org.repozoo.commons.range;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link LocateKernel} using <code>jdk.incubator.vector</code>, loaded by {@link LocateKernel#VECTOR} only if the module is resolved.<br>
+ * For a vector of values it counts the mins at or below and the maxs below each value:
+ * a value lies in range <code>minsBelow - 1</code> exactly if one more min than max is below it.
+ * This needs neither gathers nor branches per lane, but scans the bounds up to the largest value of the vector.
+ */
+final class VectorLocateKernel implements LocateKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    // as many int lanes as SPECIES has long lanes, so range indexes are narrowed and stored without a scratch array
+    private static final VectorSpecies<Integer> INDEX_SPECIES = VectorSpecies.of(int.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+
+    VectorLocateKernel() {
+        // fail while loading rather than on first use if the module cannot be linked
+        LongVector.zero(SPECIES);
+    }
+
+    @Override
+    public void locate(long[] mins, long[] maxs, long[] values, int from, int to, int[] out) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            LongVector vector = LongVector.fromArray(SPECIES, values, i);
+            LongVector minsBelow = LongVector.zero(SPECIES);
+            LongVector maxsBelow = LongVector.zero(SPECIES);
+            for (int r = 0; r < mins.length; r++) {
+                VectorMask<Long> aboveMin = vector.compare(VectorOperators.GE, mins[r]);
+                if (!aboveMin.anyTrue()) {
+                    // the bounds ascend, no further min or max is below any lane
+                    break;
+                }
+                minsBelow = minsBelow.add(1L, aboveMin);
+                maxsBelow = maxsBelow.add(1L, vector.compare(VectorOperators.GT, maxs[r]));
+            }
+            LongVector indexes = minsBelow.sub(1L).blend(-1L, minsBelow.sub(maxsBelow).compare(VectorOperators.NE, 1L));
+            ((IntVector) indexes.convertShape(VectorOperators.L2I, INDEX_SPECIES, 0)).intoArray(out, i);
+        }
+        SCALAR.locate(mins, maxs, values, i, to, out);
+    }
+}
@@ -0,0 +1,180 @@
+package org.repozoo.commons.range;
+
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A multi-dimensional range, i.e. one {@link Range} per dimension, e.g. valid time x transaction time or room x date.<br>
+ * The ranges of a dimension may be of any type, but must be created by the same factory in all boxes compared with each other.
+ * <pre>
+ * Box booking = Box.of(IntRange.between(101, 101), LocalDateRange.between(checkIn, checkOut));
+ * </pre>
+ */
+@EqualsAndHashCode
+public final class Box {
+
+    private final List<Range<Object>> ranges;
+
+    private Box(List<Range<Object>> ranges) {
+        this.ranges = List.copyOf(ranges);
+    }
+
+    /**
+     * Creates a box having ranges as its dimensions.
+     */
+    @SuppressWarnings("unchecked")
+    public static Box of(Range<?>... ranges) {
+        if (ranges.length == 0) {
+            throw new IllegalArgumentException("a box needs at least one dimension");
+        }
+        List<Range<Object>> dimensions = new ArrayList<>(ranges.length);
+        for (Range<?> range : ranges) {
+            dimensions.add((Range<Object>) range);
+        }
+        return new Box(dimensions);
+    }
+
+    public int dimensions() {
+        return ranges.size();
+    }
+
+    /**
+     * Returns the range of dimension.
+     */
+    public Range<?> range(int dimension) {
+        return ranges.get(dimension);
+    }
+
+    /**
+     * Returns true if other lies inside this box.
+     */
+    public boolean contains(Box other) {
+        requireSameDimensions(other);
+        for (int i = 0; i < ranges.size(); i++) {
+            if (!ranges.get(i).contains(other.ranges.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean intersects(Box other) {
+        requireSameDimensions(other);
+        for (int i = 0; i < ranges.size(); i++) {
+            if (!ranges.get(i).intersects(other.ranges.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the box both this and other contain, if they intersect.
+     */
+    public Optional<Box> intersection(Box other) {
+        if (!intersects(other)) {
+            return Optional.empty();
+        }
+        List<Range<Object>> intersection = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            Range<Object> a = ranges.get(i);
+            Range<Object> b = other.ranges.get(i);
+            Value<Object> min = a.minValue().isAfter(b.minValue()) ? a.minValue() : b.minValue();
+            Value<Object> max = a.maxValue().isBefore(b.maxValue()) ? a.maxValue() : b.maxValue();
+            intersection.add(Range.between(min, max));
+        }
+        return Optional.of(new Box(intersection));
+    }
+
+    /**
+     * Returns disjoint boxes covering this box except other, at most two per dimension.<br>
+     * Example (2 dimensions):
+     * <pre>[0-9]x[0-9] remove [3-5]x[3-5] returns [0-2]x[0-9], [6-9]x[0-9], [3-5]x[0-2], [3-5]x[6-9]</pre>
+     */
+    public List<Box> remove(Box other) {
+        if (!intersects(other)) {
+            return List.of(this);
+        }
+        List<Box> pieces = new ArrayList<>();
+        List<Range<Object>> rest = new ArrayList<>(ranges);
+        for (int i = 0; i < ranges.size(); i++) {
+            Range<Object> range = rest.get(i);
+            Range<Object> removed = other.ranges.get(i);
+            if (range.minValue().isBefore(removed.minValue())) {
+                pieces.add(with(rest, i, Range.between(range.minValue(), removed.minValue().previous())));
+            }
+            if (range.maxValue().isAfter(removed.maxValue())) {
+                pieces.add(with(rest, i, Range.between(removed.maxValue().next(), range.maxValue())));
+            }
+            Value<Object> min = range.minValue().isAfter(removed.minValue()) ? range.minValue() : removed.minValue();
+            Value<Object> max = range.maxValue().isBefore(removed.maxValue()) ? range.maxValue() : removed.maxValue();
+            rest.set(i, Range.between(min, max));
+        }
+        return pieces;
+    }
+
+    /**
+     * Returns the number of values in this box, the product of the values per dimension.
+     */
+    public long countValues() {
+        long count = 1;
+        for (Range<Object> range : ranges) {
+            count = Math.multiplyExact(count, range.countValues());
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "Box" + ranges;
+    }
+
+    /**
+     * Returns the smallest box containing this and other.
+     */
+    Box enclose(Box other) {
+        List<Range<Object>> enclosing = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            enclosing.add(Range.newRangeFromGlobalMinMax(ranges.get(i), other.ranges.get(i)));
+        }
+        return new Box(enclosing);
+    }
+
+    /**
+     * Returns the euclidean distance to other in steps per dimension, 0 if both intersect.
+     */
+    double distanceTo(Box other) {
+        double sum = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            Range<Object> a = ranges.get(i);
+            Range<Object> b = other.ranges.get(i);
+            long gap = 0;
+            if (a.isBefore(b)) {
+                gap = a.maxValue().distanceTo(b.minValue());
+            } else if (a.isAfter(b)) {
+                gap = b.maxValue().distanceTo(a.minValue());
+            }
+            sum += (double) gap * gap;
+        }
+        return Math.sqrt(sum);
+    }
+
+    Range<Object> rangeOf(int dimension) {
+        return ranges.get(dimension);
+    }
+
+    void requireSameDimensions(Box other) {
+        if (other.ranges.size() != ranges.size()) {
+            throw new IllegalArgumentException("boxes must have the same dimensions, \nthis: " + ranges.size() + "\nother: " + other.ranges.size());
+        }
+    }
+
+    private static Box with(List<Range<Object>> ranges, int dimension, Range<Object> range) {
+        List<Range<Object>> replaced = new ArrayList<>(ranges);
+        replaced.set(dimension, range);
+        return new Box(replaced);
+    }
+}
@@ -0,0 +1,184 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * An immutable R-tree over elements having a {@link Box}, bulk loaded by Sort-Tile-Recursive packing.<br>
+ * The elements are sorted into tiles dimension by dimension and packed into full nodes of up to 16 children,
+ * so a query descends only into nodes whose bounding box can match, which takes <code>O(log n + output)</code>
+ * for selective queries instead of a linear scan.
+ * <pre>
+ * BoxIndex&lt;Booking&gt; index = BoxIndex.of(bookings, Booking::box);
+ * index.overlapping(Box.of(IntRange.between(101, 101), LocalDateRange.between(from, to)));
+ * </pre>
+ */
+public final class BoxIndex<E> {
+
+    private static final int NODE_CAPACITY = 16;
+
+    private final Node<E> root;
+    private final int size;
+
+    private BoxIndex(Node<E> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Creates an index of elements, toBox returning the box of an element.<br>
+     * All boxes must have the same dimensions.
+     */
+    public static <E> BoxIndex<E> of(Collection<E> elements, Function<E, Box> toBox) {
+        List<Node<E>> level = new ArrayList<>(elements.size());
+        for (E element : elements) {
+            Box box = toBox.apply(element);
+            if (!level.isEmpty()) {
+                level.get(0).bounds.requireSameDimensions(box);
+            }
+            level.add(new Node<>(box, element, null));
+        }
+        if (level.isEmpty()) {
+            return new BoxIndex<>(null, 0);
+        }
+        do {
+            level = packLevel(level);
+        } while (level.size() > 1);
+        return new BoxIndex<>(level.get(0), elements.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the elements whose box intersects query.
+     */
+    public Stream<E> overlapping(Box query) {
+        return search(bounds -> bounds.intersects(query), box -> box.intersects(query));
+    }
+
+    /**
+     * Returns the elements whose box contains query (e.g. a point given as box of singleton ranges).
+     */
+    public Stream<E> containing(Box query) {
+        return search(bounds -> bounds.contains(query), box -> box.contains(query));
+    }
+
+    /**
+     * Returns the elements whose box lies inside query.
+     */
+    public Stream<E> within(Box query) {
+        return search(bounds -> bounds.intersects(query), query::contains);
+    }
+
+    /**
+     * Returns the k elements nearest to query, ordered by distance.<br>
+     * The distance of two boxes is the euclidean distance of the steps between them per dimension (0 if they intersect),
+     * computed by the factories' distance functions.
+     */
+    public List<E> nearest(Box query, int k) {
+        List<E> result = new ArrayList<>(Math.min(k, size));
+        if (root == null || k <= 0) {
+            return result;
+        }
+        record Candidate<E>(Node<E> node, double distance) {}
+        PriorityQueue<Candidate<E>> queue = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        queue.add(new Candidate<>(root, root.bounds.distanceTo(query)));
+        while (!queue.isEmpty() && result.size() < k) {
+            Node<E> node = queue.poll().node();
+            if (node.isEntry()) {
+                result.add(node.element);
+            } else {
+                for (Node<E> child : node.children) {
+                    queue.add(new Candidate<>(child, child.bounds.distanceTo(query)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Stream<E> search(Predicate<Box> mayMatch, Predicate<Box> matches) {
+        List<E> result = new ArrayList<>();
+        if (root == null) {
+            return result.stream();
+        }
+        Deque<Node<E>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<E> node = stack.pop();
+            if (node.isEntry()) {
+                if (matches.test(node.bounds)) {
+                    result.add(node.element);
+                }
+            } else if (mayMatch.test(node.bounds)) {
+                node.children.forEach(stack::push);
+            }
+        }
+        return result.stream();
+    }
+
+    /**
+     * Packs nodes into parents of up to NODE_CAPACITY children.
+     */
+    private static <E> List<Node<E>> packLevel(List<Node<E>> nodes) {
+        List<List<Node<E>>> groups = new ArrayList<>();
+        tile(new ArrayList<>(nodes), 0, nodes.get(0).bounds.dimensions(), groups);
+        List<Node<E>> parents = new ArrayList<>(groups.size());
+        for (List<Node<E>> group : groups) {
+            Box bounds = group.get(0).bounds;
+            for (Node<E> child : group) {
+                bounds = bounds.enclose(child.bounds);
+            }
+            parents.add(new Node<>(bounds, null, List.copyOf(group)));
+        }
+        return parents;
+    }
+
+    /**
+     * Sorts nodes by dimension and cuts them into slices, which are tiled by the following dimensions.
+     */
+    private static <E> void tile(List<Node<E>> nodes, int dimension, int dimensions, List<List<Node<E>>> groups) {
+        nodes.sort(Comparator.comparing(node -> node.bounds.rangeOf(dimension).minValue()));
+        if (dimension == dimensions - 1 || nodes.size() <= NODE_CAPACITY) {
+            for (int i = 0; i < nodes.size(); i += NODE_CAPACITY) {
+                groups.add(nodes.subList(i, Math.min(i + NODE_CAPACITY, nodes.size())));
+            }
+            return;
+        }
+        int pages = (nodes.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int slices = (int) Math.ceil(Math.pow(pages, 1.0 / (dimensions - dimension)));
+        int sliceSize = NODE_CAPACITY * ((pages + slices - 1) / slices);
+        for (int i = 0; i < nodes.size(); i += sliceSize) {
+            tile(new ArrayList<>(nodes.subList(i, Math.min(i + sliceSize, nodes.size()))), dimension + 1, dimensions, groups);
+        }
+    }
+
+    /**
+     * Either an entry (holding an element) or an inner node (holding children).
+     */
+    private static final class Node<E> {
+
+        private final Box bounds;
+        private final E element;
+        private final List<Node<E>> children;
+
+        Node(Box bounds, E element, List<Node<E>> children) {
+            this.bounds = bounds;
+            this.element = element;
+            this.children = children;
+        }
+
+        boolean isEntry() {
+            return children == null;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An immutable set of multi-dimensional values, kept as pairwise disjoint {@link Box}es.<br>
+ * Set operations look up the boxes they affect in a {@link BoxIndex} (built once per set, on first use)
+ * instead of comparing against all boxes.
+ * <pre>
+ * BoxSet occupied = BoxSet.of(booking1, booking2);
+ * BoxSet free = BoxSet.of(wholeHotel).remove(occupied);
+ * </pre>
+ */
+public final class BoxSet {
+
+    private static final BoxSet EMPTY = new BoxSet(List.of());
+
+    private final List<Box> boxes;
+    private volatile BoxIndex<Box> index;
+    private volatile int hashCode;
+
+    private BoxSet(List<Box> boxes) {
+        this.boxes = List.copyOf(boxes);
+    }
+
+    public static BoxSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the union of boxes, which may overlap.
+     */
+    public static BoxSet of(Box... boxes) {
+        return of(Arrays.asList(boxes));
+    }
+
+    public static BoxSet of(Collection<Box> boxes) {
+        return union(new ArrayList<>(boxes));
+    }
+
+    /**
+     * Returns the disjoint boxes of this set, in no particular order.
+     */
+    public List<Box> boxes() {
+        return boxes;
+    }
+
+    public boolean isEmpty() {
+        return boxes.isEmpty();
+    }
+
+    /**
+     * Returns the number of values in this set.
+     *
+     * @throws ArithmeticException if the number exceeds Long.MAX_VALUE
+     */
+    public long countValues() {
+        return boxes.stream().mapToLong(Box::countValues).reduce(0, Math::addExact);
+    }
+
+    /**
+     * Returns a set containing the values of this set and box.
+     */
+    public BoxSet add(Box box) {
+        List<Box> pieces = List.of(box);
+        for (Box overlapping : index().overlapping(box).toList()) {
+            pieces = removeFromAll(pieces, overlapping);
+        }
+        if (pieces.isEmpty()) {
+            return this;
+        }
+        List<Box> union = new ArrayList<>(boxes);
+        union.addAll(pieces);
+        return new BoxSet(union);
+    }
+
+    public BoxSet add(BoxSet others) {
+        // the boxes of others are disjoint already, only their overlaps with this set must be removed
+        List<Box> union = new ArrayList<>(boxes);
+        for (Box box : others.boxes) {
+            List<Box> pieces = List.of(box);
+            for (Box overlapping : index().overlapping(box).toList()) {
+                pieces = removeFromAll(pieces, overlapping);
+            }
+            union.addAll(pieces);
+        }
+        return new BoxSet(union);
+    }
+
+    /**
+     * Returns a set containing the values of this set except those of box.
+     */
+    public BoxSet remove(Box box) {
+        List<Box> overlapping = index().overlapping(box).toList();
+        if (overlapping.isEmpty()) {
+            return this;
+        }
+        Set<Box> affected = new HashSet<>(overlapping);
+        List<Box> difference = new ArrayList<>(boxes.size() + overlapping.size());
+        for (Box existing : boxes) {
+            if (affected.contains(existing)) {
+                difference.addAll(existing.remove(box));
+            } else {
+                difference.add(existing);
+            }
+        }
+        return new BoxSet(difference);
+    }
+
+    public BoxSet remove(BoxSet others) {
+        List<Box> difference = new ArrayList<>(boxes.size());
+        for (Box existing : boxes) {
+            List<Box> pieces = List.of(existing);
+            for (Box overlapping : others.index().overlapping(existing).toList()) {
+                pieces = removeFromAll(pieces, overlapping);
+            }
+            difference.addAll(pieces);
+        }
+        return new BoxSet(difference);
+    }
+
+    /**
+     * Returns true if all values of box are contained in this set (possibly spread over several boxes).
+     */
+    public boolean contains(Box box) {
+        List<Box> rest = List.of(box);
+        for (Box overlapping : index().overlapping(box).toList()) {
+            rest = removeFromAll(rest, overlapping);
+            if (rest.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean intersects(Box box) {
+        return index().overlapping(box).findAny().isPresent();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoxSet)) {
+            return false;
+        }
+        BoxSet other = (BoxSet) o;
+        return boxes.stream().allMatch(other::contains) && other.boxes.stream().allMatch(this::contains);
+    }
+
+    /**
+     * Hashes the bounding box of this set, which does not depend on how the values are split into boxes.
+     */
+    @Override
+    public int hashCode() {
+        int result = hashCode;
+        if (result == 0 && !boxes.isEmpty()) {
+            Range<?>[] bounds = new Range<?>[boxes.get(0).dimensions()];
+            for (Box box : boxes) {
+                for (int dimension = 0; dimension < bounds.length; dimension++) {
+                    bounds[dimension] = bounds[dimension] == null ? box.range(dimension) : span(bounds[dimension], box.range(dimension));
+                }
+            }
+            result = Arrays.hashCode(bounds);
+            hashCode = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BoxSet" + boxes;
+    }
+
+    private BoxIndex<Box> index() {
+        BoxIndex<Box> result = index;
+        if (result == null) {
+            result = BoxIndex.of(boxes, Function.identity());
+            index = result;
+        }
+        return result;
+    }
+
+    /**
+     * Unites possibly overlapping boxes by uniting both halves recursively, building O(log n) indexes per box.
+     */
+    private static BoxSet union(List<Box> boxes) {
+        if (boxes.size() <= 1) {
+            return boxes.isEmpty() ? EMPTY : new BoxSet(boxes);
+        }
+        int middle = boxes.size() / 2;
+        return union(boxes.subList(0, middle)).add(union(boxes.subList(middle, boxes.size())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Range<T> span(Range<T> range, Range<?> other) {
+        return Range.newRangeFromGlobalMinMax(range, (Range<T>) other);
+    }
+
+    private static List<Box> removeFromAll(List<Box> pieces, Box removed) {
+        List<Box> rest = new ArrayList<>();
+        for (Box piece : pieces) {
+            rest.addAll(piece.remove(removed));
+        }
+        return rest;
+    }
+}
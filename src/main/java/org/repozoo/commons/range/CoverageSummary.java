@@ -0,0 +1,126 @@
+package org.repozoo.commons.range;
+
+import org.repozoo.commons.range.factories.YearMonthRange;
+import org.repozoo.commons.range.factories.YearRange;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+
+/**
+ * Answers how many days of a month, year or any period a {@link RangeSet} of days covers, without enumerating days.<br>
+ * The ranges are kept as epoch days together with a running total of the days before each range,
+ * so the covered days of a period are the difference of two prefix sums, found by binary search.
+ * <pre>
+ * CoverageSummary summary = CoverageSummary.of(bookedDays);
+ * double[] perMonth = summary.monthlyRatios(YearMonth.of(2024, 1), YearMonth.of(2024, 12));
+ * </pre>
+ */
+public final class CoverageSummary {
+
+    private final long[] mins;
+    private final long[] maxs;
+    private final long[] daysBefore;
+
+    private CoverageSummary(long[] mins, long[] maxs, long[] daysBefore) {
+        this.mins = mins;
+        this.maxs = maxs;
+        this.daysBefore = daysBefore;
+    }
+
+    public static CoverageSummary of(RangeSet<LocalDate> days) {
+        LongRangeSet epochDays = LongRangeSet.of(days, LocalDate::toEpochDay);
+        int count = epochDays.rangeCount();
+        long[] mins = new long[count];
+        long[] maxs = new long[count];
+        long[] daysBefore = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            mins[i] = epochDays.min(i);
+            maxs[i] = epochDays.max(i);
+            daysBefore[i + 1] = daysBefore[i] + maxs[i] - mins[i] + 1;
+        }
+        return new CoverageSummary(mins, maxs, daysBefore);
+    }
+
+    /**
+     * Returns the number of days covered in total.
+     */
+    public long coveredDays() {
+        return daysBefore[mins.length];
+    }
+
+    /**
+     * Returns the number of days of period which are covered.
+     */
+    public long coveredDays(Range<LocalDate> period) {
+        return coveredDays(period.min().toEpochDay(), period.max().toEpochDay());
+    }
+
+    /**
+     * Returns the covered part of period, between 0.0 and 1.0.
+     */
+    public double ratio(Range<LocalDate> period) {
+        return ratio(period.min().toEpochDay(), period.max().toEpochDay());
+    }
+
+    public double ratio(YearMonth month) {
+        return ratio(month.atDay(1).toEpochDay(), month.atEndOfMonth().toEpochDay());
+    }
+
+    public double ratio(Year year) {
+        return ratio(year.atDay(1).toEpochDay(), year.atMonth(12).atEndOfMonth().toEpochDay());
+    }
+
+    /**
+     * Returns the ratio of each month from first to last (both inclusive), e.g. to render a timeline.
+     */
+    public double[] monthlyRatios(YearMonth first, YearMonth last) {
+        int months = Math.toIntExact(YearMonthRange.between(first, last).countValues());
+        double[] ratios = new double[months];
+        for (int i = 0; i < months; i++) {
+            ratios[i] = ratio(first.plusMonths(i));
+        }
+        return ratios;
+    }
+
+    /**
+     * Returns the ratio of each year from first to last (both inclusive).
+     */
+    public double[] yearlyRatios(Year first, Year last) {
+        int years = Math.toIntExact(YearRange.between(first, last).countValues());
+        double[] ratios = new double[years];
+        for (int i = 0; i < years; i++) {
+            ratios[i] = ratio(first.plusYears(i));
+        }
+        return ratios;
+    }
+
+    private double ratio(long from, long to) {
+        return (double) coveredDays(from, to) / (to - from + 1);
+    }
+
+    private long coveredDays(long from, long to) {
+        return coveredUpTo(to) - coveredUpTo(from - 1);
+    }
+
+    /**
+     * Returns the number of covered days at or before day.
+     */
+    private long coveredUpTo(long day) {
+        int low = 0;
+        int high = mins.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mins[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            return 0;
+        }
+        int last = low - 1;
+        return daysBefore[last] + Math.min(day, maxs[last]) - mins[last] + 1;
+    }
+}
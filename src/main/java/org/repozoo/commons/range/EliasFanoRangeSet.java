@@ -0,0 +1,303 @@
+package org.repozoo.commons.range;
+
+import org.repozoo.commons.range.factories.LongRange;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable, compressed {@link RangeSet} of longs for huge sparse sets.<br>
+ * The bounds <code>min0, max0, min1, max1, ...</code> form a non decreasing sequence, which is stored Elias-Fano encoded:
+ * the low bits of each bound are packed into a bit array, the high bits are stored as unary coded gaps in a second one.
+ * A set of n ranges over a universe of size u takes about <code>2n * (2 + log2(u / 2n))</code> bits,
+ * instead of the 128 bits per range of a {@link LongRangeSet}.<br>
+ * {@link #contains(long)}, {@link #rangeContaining(long)} and {@link #ceiling(long)} work on the compressed form:
+ * two sampled select operations find the bounds sharing the high bits of the value, a binary search among those
+ * takes O(log n) in the worst case (all bounds in one bucket), usually a few steps. {@link #streamRanges()} decodes sequentially.
+ */
+public final class EliasFanoRangeSet implements RangeSet<Long> {
+
+    private static final int SAMPLE_RATE = 256;
+
+    private final long origin;
+    private final long universe;
+    private final int count;
+    private final int lowBitCount;
+    private final long[] lowBits;
+    private final long[] highBits;
+    private final long[] onesSamples;
+    private final long[] zerosSamples;
+
+    private EliasFanoRangeSet(LongRangeSet rangeSet) {
+        int rangeCount = rangeSet.rangeCount();
+        this.count = Math.multiplyExact(rangeCount, 2);
+        this.origin = rangeCount == 0 ? 0 : rangeSet.min(0);
+        this.universe = rangeCount == 0 ? 0 : rangeSet.max(rangeCount - 1) - origin;
+        long perElement = count == 0 ? 0 : Long.divideUnsigned(universe, count);
+        this.lowBitCount = perElement == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(perElement);
+        this.lowBits = new long[words((long) count * lowBitCount)];
+        long highBitLength = (universe >>> lowBitCount) + count + 1;
+        this.highBits = new long[words(highBitLength)];
+        for (int i = 0; i < count; i++) {
+            long bound = (i % 2 == 0 ? rangeSet.min(i / 2) : rangeSet.max(i / 2)) - origin;
+            writeLow(i, bound);
+            long position = (bound >>> lowBitCount) + i;
+            highBits[(int) (position >>> 6)] |= 1L << position;
+        }
+        this.onesSamples = samples(true, count);
+        long zeros = highBitLength - count;
+        this.zerosSamples = samples(false, zeros);
+    }
+
+    /**
+     * Creates a new {@link EliasFanoRangeSet} containing the ranges of rangeSet.
+     */
+    public static EliasFanoRangeSet of(LongRangeSet rangeSet) {
+        return new EliasFanoRangeSet(rangeSet);
+    }
+
+    /**
+     * Creates a new {@link EliasFanoRangeSet} containing the ranges of rangeSet.
+     */
+    public static EliasFanoRangeSet of(RangeSet<Long> rangeSet) {
+        return new EliasFanoRangeSet(LongRangeSet.of(rangeSet));
+    }
+
+    /**
+     * Returns the number of ranges in this set.
+     */
+    public int rangeCount() {
+        return count / 2;
+    }
+
+    /**
+     * Returns the memory used by the encoded bounds in bytes.
+     */
+    public long memoryBytes() {
+        return (long) (lowBits.length + highBits.length + onesSamples.length + zerosSamples.length) * Long.BYTES;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public boolean contains(Long value) {
+        return contains(value.longValue());
+    }
+
+    public boolean contains(long value) {
+        int index = predecessor(value);
+        return index >= 0 && (index % 2 == 0 || bound(index) == value);
+    }
+
+    /**
+     * Returns the range containing value, if any.
+     */
+    public Optional<Range<Long>> rangeContaining(long value) {
+        int index = predecessor(value);
+        if (index < 0 || (index % 2 == 1 && bound(index) != value)) {
+            return Optional.empty();
+        }
+        return Optional.of(range(index / 2));
+    }
+
+    /**
+     * Returns the smallest value of this set greater than or equal to value, if any.
+     */
+    public OptionalLong ceiling(long value) {
+        int index = predecessor(value);
+        if (index >= 0 && (index % 2 == 0 || bound(index) == value)) {
+            return OptionalLong.of(value);
+        }
+        int next = index < 0 ? 0 : (index + 1);
+        return next < count ? OptionalLong.of(bound(next)) : OptionalLong.empty();
+    }
+
+    /**
+     * Returns the range at index, decoding two bounds.
+     */
+    public Range<Long> range(int index) {
+        return LongRange.between(bound(index * 2), bound(index * 2 + 1));
+    }
+
+    @Override
+    public Stream<Range<Long>> streamRanges() {
+        Spliterator<Range<Long>> spliterator = Spliterators.spliterator(new Decoder(), count / 2L,
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public String toString() {
+        return RangeSet.toString(this);
+    }
+
+    /**
+     * Returns the index of the last bound being less than or equal to value, or -1 if there is none.
+     */
+    private int predecessor(long value) {
+        if (count == 0 || value < origin) {
+            return -1;
+        }
+        long offset = value - origin;
+        if (Long.compareUnsigned(offset, universe) >= 0) {
+            return count - 1;
+        }
+        long high = offset >>> lowBitCount;
+        long low = offset & lowMask();
+        // the bounds with the same high bits lie between the (high - 1)-th and the high-th zero, ascending by their low bits
+        int start = high == 0 ? 0 : (int) (selectZero(high - 1) - (high - 1));
+        int end = (int) (selectZero(high) - high);
+        while (start < end) {
+            int middle = (start + end) >>> 1;
+            if (Long.compareUnsigned(readLow(middle), low) > 0) {
+                end = middle;
+            } else {
+                start = middle + 1;
+            }
+        }
+        return start - 1;
+    }
+
+    private long bound(int index) {
+        long high = selectOne(index) - index;
+        return origin + ((high << lowBitCount) | readLow(index));
+    }
+
+    /**
+     * Returns the position of the k-th (starting at 0) one bit of the high bits.
+     */
+    private long selectOne(long k) {
+        return select(true, onesSamples, k);
+    }
+
+    /**
+     * Returns the position of the k-th (starting at 0) zero bit of the high bits.
+     */
+    private long selectZero(long k) {
+        return select(false, zerosSamples, k);
+    }
+
+    private long select(boolean ones, long[] samples, long k) {
+        long position = samples[(int) (k / SAMPLE_RATE)];
+        long remaining = k % SAMPLE_RATE;
+        int word = (int) (position >>> 6);
+        long bits = word(ones, word) & (-1L << position);
+        while (true) {
+            int bitCount = Long.bitCount(bits);
+            if (remaining < bitCount) {
+                for (long i = 0; i < remaining; i++) {
+                    bits &= bits - 1;
+                }
+                return ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            remaining -= bitCount;
+            word++;
+            bits = word(ones, word);
+        }
+    }
+
+    private long word(boolean ones, int index) {
+        return ones ? highBits[index] : ~highBits[index];
+    }
+
+    /**
+     * Returns the position of every SAMPLE_RATE-th one (or zero) bit.
+     */
+    private long[] samples(boolean ones, long total) {
+        long[] samples = new long[(int) ((total + SAMPLE_RATE - 1) / SAMPLE_RATE)];
+        long seen = 0;
+        for (int word = 0; word < highBits.length && seen < total; word++) {
+            long bits = word(ones, word);
+            while (bits != 0 && seen < total) {
+                if (seen % SAMPLE_RATE == 0) {
+                    samples[(int) (seen / SAMPLE_RATE)] = ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                bits &= bits - 1;
+                seen++;
+            }
+        }
+        return samples;
+    }
+
+    private long lowMask() {
+        return lowBitCount == 0 ? 0 : -1L >>> (Long.SIZE - lowBitCount);
+    }
+
+    private void writeLow(int index, long bound) {
+        if (lowBitCount == 0) {
+            return;
+        }
+        long bits = bound & lowMask();
+        long position = (long) index * lowBitCount;
+        int word = (int) (position >>> 6);
+        int offset = (int) (position & 63);
+        lowBits[word] |= bits << offset;
+        if (offset + lowBitCount > Long.SIZE) {
+            lowBits[word + 1] |= bits >>> (Long.SIZE - offset);
+        }
+    }
+
+    private long readLow(int index) {
+        if (lowBitCount == 0) {
+            return 0;
+        }
+        long position = (long) index * lowBitCount;
+        int word = (int) (position >>> 6);
+        int offset = (int) (position & 63);
+        long bits = lowBits[word] >>> offset;
+        if (offset + lowBitCount > Long.SIZE) {
+            bits |= lowBits[word + 1] << (Long.SIZE - offset);
+        }
+        return bits & lowMask();
+    }
+
+    private static int words(long bits) {
+        return Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Decodes the bounds sequentially, scanning the high bits once.
+     */
+    private final class Decoder implements Iterator<Range<Long>> {
+
+        private int index;
+        private int word;
+        private long bits = highBits.length == 0 ? 0 : highBits[0];
+
+        @Override
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        @Override
+        public Range<Long> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long min = nextBound();
+            long max = nextBound();
+            return LongRange.between(min, max);
+        }
+
+        private long nextBound() {
+            while (bits == 0) {
+                bits = highBits[++word];
+            }
+            long position = ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            long high = position - index;
+            long bound = origin + ((high << lowBitCount) | readLow(index));
+            index++;
+            return bound;
+        }
+    }
+}
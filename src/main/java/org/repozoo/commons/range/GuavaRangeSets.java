@@ -0,0 +1,304 @@
+package org.repozoo.commons.range;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableRangeSet;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Views presenting a Guava {@link com.google.common.collect.RangeSet} as {@link RangeSet} and vice versa, without copying the ranges.<br>
+ * Guava ranges may be open, half-open or unbounded, so they are canonicalized by a {@link DiscreteDomain}
+ * into the closed ranges of this library (<code>(1..5)</code> becomes <code>[2-4]</code>, <code>[1..+&infin;)</code> ends at the domain's maximum).
+ * Ranges adjacent in the domain (e.g. Guava's disconnected <code>[1..2]</code> and <code>[3..4]</code>) are merged while streaming.
+ * <pre>
+ * RangeSet&lt;Integer&gt; view = GuavaRangeSets.asRangeSet(guavaSet, DiscreteDomain.integers(), IntRange::between);
+ * com.google.common.collect.RangeSet&lt;Integer&gt; guavaView = GuavaRangeSets.asGuavaRangeSet(rangeSet);
+ * </pre>
+ * The natural order of T must match the order of the range factory.
+ */
+public final class GuavaRangeSets {
+
+    private GuavaRangeSets() {}
+
+    /**
+     * Returns a view of guava, reflecting later changes of guava if it is mutable.<br>
+     * {@link RangeSet#contains(Object)} is delegated to guava, the ranges are canonicalized when streamed.
+     */
+    public static <T extends Comparable<? super T>> RangeSet<T> asRangeSet(
+            com.google.common.collect.RangeSet<T> guava, DiscreteDomain<T> domain, RangeFactory.CreateRange<T> createRange) {
+        return new FromGuava<>(guava, domain, createRange);
+    }
+
+    /**
+     * Returns an unmodifiable Guava view of rangeSet, having one closed range per range of rangeSet.<br>
+     * Lookups are binary searches over the ranges of rangeSet, which are indexed once (see {@link IndexedRangeSet#of(RangeSet)}).
+     * {@link com.google.common.collect.RangeSet#complement()} and {@link com.google.common.collect.RangeSet#subRangeSet(com.google.common.collect.Range)}
+     * return immutable copies.
+     */
+    public static <T extends Comparable<? super T>> com.google.common.collect.RangeSet<T> asGuavaRangeSet(RangeSet<T> rangeSet) {
+        return new ToGuava<>(IndexedRangeSet.of(rangeSet));
+    }
+
+    private static final class FromGuava<T extends Comparable<? super T>> implements RangeSet<T> {
+
+        private final com.google.common.collect.RangeSet<T> guava;
+        private final DiscreteDomain<T> domain;
+        private final RangeFactory.CreateRange<T> createRange;
+
+        FromGuava(com.google.common.collect.RangeSet<T> guava, DiscreteDomain<T> domain, RangeFactory.CreateRange<T> createRange) {
+            this.guava = guava;
+            this.domain = domain;
+            this.createRange = createRange;
+        }
+
+        @Override
+        public Stream<Range<T>> streamRanges() {
+            Iterator<com.google.common.collect.Range<T>> ranges = guava.asRanges().iterator();
+            Iterator<Range<T>> canonical = new Iterator<>() {
+
+                private T nextMin;
+                private T nextMax;
+
+                @Override
+                public boolean hasNext() {
+                    return nextMin != null || advance();
+                }
+
+                @Override
+                public Range<T> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    T min = nextMin;
+                    T max = nextMax;
+                    nextMin = null;
+                    while (advance()) {
+                        T afterMax = domain.next(max);
+                        if (afterMax == null || !afterMax.equals(nextMin)) {
+                            break;
+                        }
+                        max = nextMax;
+                        nextMin = null;
+                    }
+                    return createRange.between(min, max);
+                }
+
+                /**
+                 * Reads the next non-empty guava range into nextMin/nextMax.
+                 */
+                private boolean advance() {
+                    while (ranges.hasNext()) {
+                        com.google.common.collect.Range<T> range = ranges.next().canonical(domain);
+                        if (!range.isEmpty()) {
+                            nextMin = range.hasLowerBound() ? range.lowerEndpoint() : domain.minValue();
+                            nextMax = range.hasUpperBound() ? domain.previous(range.upperEndpoint()) : domain.maxValue();
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(canonical, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+
+        @Override
+        public boolean contains(T value) {
+            return guava.contains(value);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return streamRanges().findAny().isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return RangeSet.toString(this);
+        }
+    }
+
+    private static final class ToGuava<T extends Comparable<? super T>> implements com.google.common.collect.RangeSet<T> {
+
+        private final IndexedRangeSet<T> ranges;
+
+        ToGuava(IndexedRangeSet<T> ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        public boolean contains(T value) {
+            return ranges.contains(value);
+        }
+
+        @Override
+        public com.google.common.collect.Range<T> rangeContaining(T value) {
+            return ranges.rangeContaining(value).map(ToGuava::toGuava).orElse(null);
+        }
+
+        @Override
+        public boolean intersects(com.google.common.collect.Range<T> other) {
+            int index = firstNotBelow(other);
+            if (index == ranges.rangeCount()) {
+                return false;
+            }
+            com.google.common.collect.Range<T> candidate = toGuava(ranges.range(index));
+            return candidate.isConnected(other) && !candidate.intersection(other).isEmpty();
+        }
+
+        @Override
+        public boolean encloses(com.google.common.collect.Range<T> other) {
+            int index = firstNotBelow(other);
+            return index < ranges.rangeCount() && toGuava(ranges.range(index)).encloses(other);
+        }
+
+        @Override
+        public boolean enclosesAll(com.google.common.collect.RangeSet<T> other) {
+            return other.asRanges().stream().allMatch(this::encloses);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ranges.isEmpty();
+        }
+
+        @Override
+        public com.google.common.collect.Range<T> span() {
+            if (ranges.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return com.google.common.collect.Range.closed(ranges.range(0).min(), ranges.range(ranges.rangeCount() - 1).max());
+        }
+
+        @Override
+        public Set<com.google.common.collect.Range<T>> asRanges() {
+            return new RangeView(false);
+        }
+
+        @Override
+        public Set<com.google.common.collect.Range<T>> asDescendingSetOfRanges() {
+            return new RangeView(true);
+        }
+
+        @Override
+        public com.google.common.collect.RangeSet<T> complement() {
+            return ImmutableRangeSet.copyOf(this).complement();
+        }
+
+        @Override
+        public com.google.common.collect.RangeSet<T> subRangeSet(com.google.common.collect.Range<T> view) {
+            return ImmutableRangeSet.copyOf(this).subRangeSet(view);
+        }
+
+        @Override
+        public void add(com.google.common.collect.Range<T> range) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void remove(com.google.common.collect.Range<T> range) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addAll(com.google.common.collect.RangeSet<T> other) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeAll(com.google.common.collect.RangeSet<T> other) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof com.google.common.collect.RangeSet<?> other && asRanges().equals(other.asRanges());
+        }
+
+        @Override
+        public int hashCode() {
+            return asRanges().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return asRanges().toString();
+        }
+
+        /**
+         * Returns the index of the first range not lying completely below other, or rangeCount if there is none.
+         */
+        private int firstNotBelow(com.google.common.collect.Range<T> other) {
+            int low = 0;
+            int high = ranges.rangeCount();
+            if (!other.hasLowerBound()) {
+                return low;
+            }
+            T lower = other.lowerEndpoint();
+            boolean open = other.lowerBoundType() == BoundType.OPEN;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int compared = ranges.range(mid).max().compareTo(lower);
+                if (compared < 0 || compared == 0 && open) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static <T extends Comparable<? super T>> com.google.common.collect.Range<T> toGuava(Range<T> range) {
+            return com.google.common.collect.Range.closed(range.min(), range.max());
+        }
+
+        private final class RangeView extends AbstractSet<com.google.common.collect.Range<T>> {
+
+            private final boolean descending;
+
+            RangeView(boolean descending) {
+                this.descending = descending;
+            }
+
+            @Override
+            public Iterator<com.google.common.collect.Range<T>> iterator() {
+                return new Iterator<>() {
+
+                    private int position;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < ranges.rangeCount();
+                    }
+
+                    @Override
+                    public com.google.common.collect.Range<T> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = descending ? ranges.rangeCount() - 1 - position : position;
+                        position++;
+                        return toGuava(ranges.range(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ranges.rangeCount();
+            }
+        }
+    }
+}
@@ -0,0 +1,518 @@
+package org.repozoo.commons.range;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A materialized {@link RangeSet} keeping its normalized ranges in a random access list.<br>
+ * Lookups of single values are done by binary search, bulk lookups of sorted values by a merge-scan.
+ */
+public final class IndexedRangeSet<T> implements RangeSet<T> {
+
+    private final List<Range<T>> ranges;
+    private volatile GapIndex gapIndex;
+    private volatile long[] valuesBefore;
+    private int hashCode;
+
+    /**
+     * Expects ranges to be normalized, i.e. sorted by Range::min and neither overlapping nor adjacent.
+     */
+    IndexedRangeSet(List<Range<T>> ranges) {
+        this.ranges = List.copyOf(ranges);
+    }
+
+    /**
+     * Returns rangeSet itself if it is already indexed, otherwise a new {@link IndexedRangeSet} with its ranges.
+     */
+    public static <T> IndexedRangeSet<T> of(RangeSet<T> rangeSet) {
+        if (rangeSet instanceof IndexedRangeSet) {
+            return (IndexedRangeSet<T>) rangeSet;
+        }
+        return new IndexedRangeSet<>(rangeSet.getRanges());
+    }
+
+    @Override
+    public Stream<Range<T>> streamRanges() {
+        return ranges.stream();
+    }
+
+    @Override
+    public List<Range<T>> getRanges() {
+        return ranges;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    /**
+     * Returns the number of ranges in this set.
+     */
+    public int rangeCount() {
+        return ranges.size();
+    }
+
+    /**
+     * Returns the range at index, ranges being ordered by Range::min ascending.
+     */
+    public Range<T> range(int index) {
+        return ranges.get(index);
+    }
+
+    /**
+     * Returns the index of the {@link Range} containing value,<br>
+     * or <code>(-(insertion point) - 1)</code> if no range contains it (see {@link java.util.Collections#binarySearch}).<br>
+     * A value between min and max of a range but excluded by its membership (see {@link Range#admits}) yields the index of that range.
+     */
+    public int indexOf(T value) {
+        return binarySearch(value, 0, ranges.size());
+    }
+
+    /**
+     * Returns the {@link Range} containing value, if any.
+     */
+    public Optional<Range<T>> rangeContaining(T value) {
+        int index = indexOf(value);
+        return admits(index, value) ? Optional.of(ranges.get(index)) : Optional.empty();
+    }
+
+    @Override
+    public boolean contains(T value) {
+        return admits(indexOf(value), value);
+    }
+
+    @Override
+    public BitSet containsAll(List<T> values) {
+        long begin = RangeInstrumentation.begin();
+        BitSet result = new BitSet(values.size());
+        int hint = 0;
+        for (int i = 0; i < values.size(); i++) {
+            int index = indexOf(values.get(i), hint);
+            if (admits(index, values.get(i))) {
+                result.set(i);
+            }
+            hint = index >= 0 ? index : -index - 1;
+        }
+        RangeInstrumentation.endQuery(RangeMetrics.Operation.CONTAINS_ALL, begin, values.size(), result.cardinality());
+        return result;
+    }
+
+    @Override
+    public int[] bucketize(List<T> values) {
+        long begin = RangeInstrumentation.begin();
+        int[] result = new int[values.size()];
+        int hint = 0;
+        int hits = 0;
+        for (int i = 0; i < values.size(); i++) {
+            int index = indexOf(values.get(i), hint);
+            if (admits(index, values.get(i))) {
+                result[i] = index;
+                hits++;
+            } else {
+                result[i] = -1;
+            }
+            hint = index >= 0 ? index : -index - 1;
+        }
+        RangeInstrumentation.endQuery(RangeMetrics.Operation.BUCKETIZE, begin, values.size(), hits);
+        return result;
+    }
+
+    @Override
+    public Stream<T> filter(Stream<T> values) {
+        long begin = RangeInstrumentation.begin();
+        if (begin != RangeInstrumentation.DISABLED) {
+            return recordFilter(values, begin);
+        }
+        if (values.isParallel()) {
+            return values.filter(this::contains);
+        }
+        int[] hint = {0};
+        return values.filter(value -> {
+            int index = indexOf(value, hint[0]);
+            hint[0] = index >= 0 ? index : -index - 1;
+            return admits(index, value);
+        });
+    }
+
+    /**
+     * Filters values like {@link #filter(Stream)}, recording a {@link RangeMetrics.Operation#FILTER} query
+     * once the returned stream is fully traversed.
+     */
+    private Stream<T> recordFilter(Stream<T> values, long begin) {
+        LongAdder queried = new LongAdder();
+        LongAdder hits = new LongAdder();
+        Stream<T> filtered = values
+            .peek(value -> queried.increment())
+            .filter(this::contains)
+            .peek(value -> hits.increment());
+        Spliterator<T> source = filtered.spliterator();
+        Spliterator<T> recording = new Spliterators.AbstractSpliterator<>(source.estimateSize(), source.characteristics()) {
+
+            private boolean recorded;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (source.tryAdvance(action)) {
+                    return true;
+                }
+                record();
+                return false;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+                source.forEachRemaining(action);
+                record();
+            }
+
+            private void record() {
+                if (!recorded) {
+                    recorded = true;
+                    RangeInstrumentation.endQuery(RangeMetrics.Operation.FILTER, begin, queried.sum(), hits.sum());
+                }
+            }
+        };
+        return StreamSupport.stream(recording, values.isParallel()).onClose(filtered::close);
+    }
+
+    /**
+     * Returns the ranges within bounds not covered by this set, starting the search at bounds.min by binary search.
+     */
+    @Override
+    public Stream<Range<T>> complement(Range<T> bounds) {
+        int index = indexOf(bounds.min());
+        Iterator<Range<T>> gaps = new Gaps(bounds, index >= 0 ? index : -index - 1);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(gaps, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns the first gap between two ranges of this set having at least length values at or after 'after'.<br>
+     * The gap is cut at 'after', so if 'after' lies before the first range, the gap from 'after' up to the first range is a candidate too.
+     * The unbounded gap after the last range is never returned (see {@link #complement(Range)} for that).<br>
+     * Runs in O(log n) (after building an index of gap lengths once) if the factory provides a distance function.
+     */
+    public Optional<Range<T>> firstGapOfAtLeast(long length, T after) {
+        requireNonNegative(length);
+        int index = indexOf(after);
+        int firstGap;
+        if (index >= 0) {
+            firstGap = index;
+        } else {
+            int next = -index - 1;
+            if (next == ranges.size()) {
+                return Optional.empty();
+            }
+            Value<T> afterValue = ranges.get(next).minValue().with(after);
+            if (afterValue.distanceTo(ranges.get(next).minValue()) >= length) {
+                return Optional.of(Range.between(afterValue, ranges.get(next).minValue().previous()));
+            }
+            firstGap = next;
+        }
+        int gap = gapIndex().firstAtLeast(firstGap, length);
+        return gap < 0 ? Optional.empty() : Optional.of(gap(gap));
+    }
+
+    /**
+     * Returns the smallest gap between two ranges of this set having at least length values, the first one if there are several.<br>
+     * Runs in O(log n) (after building an index of gap lengths once) if the factory provides a distance function.
+     */
+    public Optional<Range<T>> bestFitGap(long length) {
+        requireNonNegative(length);
+        int gap = gapIndex().smallestAtLeast(length);
+        return gap < 0 ? Optional.empty() : Optional.of(gap(gap));
+    }
+
+    @Override
+    public long countValues() {
+        return valuesBefore()[ranges.size()];
+    }
+
+    /**
+     * Returns the number of values of this set lying before value.
+     */
+    public long rank(T value) {
+        int index = indexOf(value);
+        if (index >= 0) {
+            Range<T> range = ranges.get(index);
+            return valuesBefore()[index] + range.minValue().distanceTo(range.minValue().with(value));
+        }
+        return valuesBefore()[-index - 1];
+    }
+
+    /**
+     * Returns the value at position k (starting at 0) of all values of this set in ascending order.
+     *
+     * @throws IndexOutOfBoundsException if k is negative or not less than {@link #countValues()}
+     */
+    public T select(long k) {
+        long[] before = valuesBefore();
+        if (k < 0 || k >= before[ranges.size()]) {
+            throw new IndexOutOfBoundsException("k out of bounds, \nk: " + k + "\ncountValues: " + before[ranges.size()]);
+        }
+        int low = 0;
+        int high = ranges.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (before[middle] <= k) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return ranges.get(low).minValue().plus(k - before[low]).value();
+    }
+
+    /**
+     * Returns a value of this set chosen uniformly at random.
+     *
+     * @throws NoSuchElementException if this set is empty
+     */
+    public T sample(RandomGenerator random) {
+        long count = countValues();
+        if (count == 0) {
+            throw new NoSuchElementException("an empty set has no values to sample");
+        }
+        return select(random.nextLong(count));
+    }
+
+    /**
+     * Equal to an {@link IndexedRangeSet} or a {@link PersistentRangeSet} having the same ranges.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof IndexedRangeSet<?> other) {
+            return hashCode() == other.hashCode() && ranges.equals(other.ranges);
+        }
+        return o instanceof PersistentRangeSet<?> other && other.equals(this);
+    }
+
+    /**
+     * Returns the {@link List#hashCode()} of the ranges, computed once.
+     */
+    @Override
+    public int hashCode() {
+        int hash = hashCode;
+        if (hash == 0) {
+            hash = ranges.hashCode();
+            hashCode = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "RangeSet" + ranges;
+    }
+
+    /**
+     * Returns the number of values before each range, the last element being the number of all values.
+     */
+    private long[] valuesBefore() {
+        long[] before = valuesBefore;
+        if (before == null) {
+            before = new long[ranges.size() + 1];
+            for (int i = 0; i < ranges.size(); i++) {
+                before[i + 1] = before[i] + ranges.get(i).countValues();
+            }
+            valuesBefore = before;
+        }
+        return before;
+    }
+
+    /**
+     * Returns the gap between the ranges at index and index + 1.
+     */
+    private Range<T> gap(int index) {
+        return Range.between(ranges.get(index).maxValue().next(), ranges.get(index + 1).minValue().previous());
+    }
+
+    private GapIndex gapIndex() {
+        GapIndex index = gapIndex;
+        if (index == null) {
+            long[] lengths = IntStream.range(0, Math.max(ranges.size() - 1, 0))
+                .mapToLong(i -> ranges.get(i).maxValue().distanceTo(ranges.get(i + 1).minValue()) - 1)
+                .toArray();
+            index = new GapIndex(lengths);
+            gapIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Indexes gap lengths by position (a max tree) and by length (gap indices sorted by length).
+     */
+    private static final class GapIndex {
+
+        private final int leaves;
+        private final long[] maxTree;
+        private final long[] lengths;
+        private final Integer[] byLength;
+
+        GapIndex(long[] lengths) {
+            this.lengths = lengths;
+            this.leaves = Integer.highestOneBit(Math.max(lengths.length, 1) * 2 - 1);
+            this.maxTree = new long[leaves * 2];
+            Arrays.fill(maxTree, -1);
+            System.arraycopy(lengths, 0, maxTree, leaves, lengths.length);
+            for (int node = leaves - 1; node > 0; node--) {
+                maxTree[node] = Math.max(maxTree[node * 2], maxTree[node * 2 + 1]);
+            }
+            this.byLength = IntStream.range(0, lengths.length).boxed().toArray(Integer[]::new);
+            Arrays.sort(byLength, Comparator.<Integer>comparingLong(i -> lengths[i]).thenComparingInt(i -> i));
+        }
+
+        /**
+         * Returns the first gap index &gt;= from having at least length values, or -1.
+         */
+        int firstAtLeast(int from, long length) {
+            return firstAtLeast(1, 0, leaves - 1, from, length);
+        }
+
+        private int firstAtLeast(int node, int nodeFrom, int nodeTo, int from, long length) {
+            if (nodeTo < from || maxTree[node] < length) {
+                return -1;
+            }
+            if (nodeFrom == nodeTo) {
+                return nodeFrom;
+            }
+            int middle = (nodeFrom + nodeTo) >>> 1;
+            int left = firstAtLeast(node * 2, nodeFrom, middle, from, length);
+            return left >= 0 ? left : firstAtLeast(node * 2 + 1, middle + 1, nodeTo, from, length);
+        }
+
+        /**
+         * Returns the index of the smallest gap having at least length values, or -1.
+         */
+        int smallestAtLeast(long length) {
+            int low = 0;
+            int high = byLength.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (lengths[byLength[middle]] < length) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low < byLength.length ? byLength[low] : -1;
+        }
+    }
+
+    /**
+     * Iterates the gaps within bounds, starting at the range at index.
+     */
+    private final class Gaps implements Iterator<Range<T>> {
+
+        private final Range<T> bounds;
+        private int index;
+        private Value<T> from;
+        private Range<T> next;
+
+        Gaps(Range<T> bounds, int index) {
+            this.bounds = bounds;
+            this.index = index;
+            this.from = bounds.minValue();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Range<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Range<T> gap = next;
+            next = null;
+            return gap;
+        }
+
+        private Range<T> advance() {
+            while (from != null) {
+                Range<T> range = index < ranges.size() ? ranges.get(index) : null;
+                if (range == null || range.minValue().isAfter(bounds.maxValue())) {
+                    Range<T> gap = Range.between(from, bounds.maxValue());
+                    from = null;
+                    return gap;
+                }
+                index++;
+                Value<T> gapFrom = from;
+                from = range.maxValue().isBefore(bounds.maxValue()) ? range.maxValue().next() : null;
+                if (gapFrom.isBefore(range.minValue())) {
+                    return Range.between(gapFrom, range.minValue().previous());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Like {@link #indexOf(Object)}, but starts searching at hint.<br>
+     * Values after the range at hint are found by galloping forward, which makes a sequence
+     * of ascending lookups cost no more than a merge of both sequences.
+     */
+    int indexOf(T value, int hint) {
+        int size = ranges.size();
+        if (hint >= size || hint < 0 || ranges.get(hint).locate(value) < 0) {
+            return binarySearch(value, 0, size);
+        }
+        int low = hint;
+        int step = 1;
+        int high = hint + step;
+        while (high < size && ranges.get(high).locate(value) > 0) {
+            low = high;
+            step <<= 1;
+            high = hint + step;
+        }
+        return binarySearch(value, low, Math.min(high + 1, size));
+    }
+
+    private static void requireNonNegative(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative, \nlength: " + length);
+        }
+    }
+
+    private boolean admits(int index, T value) {
+        return index >= 0 && ranges.get(index).admits(value);
+    }
+
+    private int binarySearch(T value, int fromIndex, int toIndex) {
+        int low = fromIndex;
+        int high = toIndex - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int location = ranges.get(mid).locate(value);
+            if (location > 0) {
+                low = mid + 1;
+            } else if (location < 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,70 @@
+package org.repozoo.commons.range;
+
+/**
+ * Locates unordered values in sorted, disjoint ranges given by their bounds, see {@link LongRangeSet#classify(long[], int[])}.<br>
+ * {@link #SCALAR} runs a branch-free binary search per value. If the JVM resolves <code>jdk.incubator.vector</code>
+ * (e.g. started with <code>--add-modules jdk.incubator.vector</code>), sets of up to {@link #VECTOR_MAX_RANGES} ranges
+ * use a kernel comparing a whole vector of values against each bound instead, which is compiled separately
+ * (<code>src/main/java-vector</code>) and loaded reflectively, so this library neither requires nor exports the incubator module.
+ * The system property <code>org.repozoo.commons.range.vector=false</code> disables it.
+ */
+interface LocateKernel {
+
+    /**
+     * The number of ranges up to which the vector kernel, scanning all bounds, beats the binary search
+     * (about 2.5x faster for 4 ranges, 1.4x for 16 and 2x slower for 64 with AVX-512, see <code>LongRangeSetBenchmark</code>).
+     */
+    int VECTOR_MAX_RANGES = 24;
+
+    LocateKernel SCALAR = LocateKernel::locateScalar;
+
+    LocateKernel VECTOR = loadVector();
+
+    /**
+     * Writes for each of values[from..to) the index of the range containing it, or -1 if there is none, into out at the same index.
+     */
+    void locate(long[] mins, long[] maxs, long[] values, int from, int to, int[] out);
+
+    /**
+     * Returns the fastest kernel available for a set of rangeCount ranges.
+     */
+    static LocateKernel forRangeCount(int rangeCount) {
+        return VECTOR != null && rangeCount <= VECTOR_MAX_RANGES ? VECTOR : SCALAR;
+    }
+
+    /**
+     * Runs log2(rangeCount) steps per value, selecting by conditional moves instead of branches.
+     */
+    private static void locateScalar(long[] mins, long[] maxs, long[] values, int from, int to, int[] out) {
+        int size = mins.length;
+        for (int i = from; i < to; i++) {
+            long value = values[i];
+            if (size == 0) {
+                out[i] = -1;
+                continue;
+            }
+            int base = 0;
+            int n = size;
+            while (n > 1) {
+                int half = n >>> 1;
+                base = mins[base + half] <= value ? base + half : base;
+                n -= half;
+            }
+            out[i] = mins[base] <= value && value <= maxs[base] ? base : -1;
+        }
+    }
+
+    private static LocateKernel loadVector() {
+        if (!Boolean.parseBoolean(System.getProperty("org.repozoo.commons.range.vector", "true"))) {
+            return null;
+        }
+        try {
+            return (LocateKernel) Class.forName("org.repozoo.commons.range.VectorLocateKernel")
+                .getDeclaredConstructor()
+                .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // the incubator module is not resolved, or the class was not compiled
+            return null;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.repozoo.commons.range;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link LongRangeSet} guarded by a compact probabilistic pre-filter, for sets probed mostly by values they do not contain
+ * (e.g. a huge set of blocked ip ranges).<br>
+ * The filter divides the span of the set into blocks of <code>2^shift</code> values and keeps one bit per block, set if any
+ * range touches the block. A cleared bit (or a value outside the span) answers "definitely not contained" with two array reads,
+ * only values in touched blocks are looked up in the exact set.<br>
+ * The block size is the coarsest one keeping the false positive rate (the share of uncovered values of the span lying in
+ * touched blocks) below the configured maximum, limited by a memory budget.<br>
+ * {@link #update(LongRangeSet)} rebuilds only the blocks touched by the changes. Lookups are thread safe.
+ */
+public final class LongRangeFilter {
+
+    private static final int MAX_SHIFT = 63;
+
+    private final double maxFalsePositiveRate;
+    private final long maxBytes;
+    private volatile Blocks blocks;
+    private volatile LongRangeSet rangeSet;
+
+    private LongRangeFilter(LongRangeSet rangeSet, double maxFalsePositiveRate, long maxBytes) {
+        this.maxFalsePositiveRate = maxFalsePositiveRate;
+        this.maxBytes = maxBytes;
+        this.rangeSet = rangeSet;
+        this.blocks = Blocks.of(rangeSet, maxFalsePositiveRate, maxBytes);
+    }
+
+    /**
+     * Creates a filter whose false positive rate is at most maxFalsePositiveRate, if that fits into maxBytes.<br>
+     * Otherwise, the block size is the smallest one fitting into maxBytes.
+     */
+    public static LongRangeFilter of(LongRangeSet rangeSet, double maxFalsePositiveRate, long maxBytes) {
+        if (maxFalsePositiveRate < 0 || maxFalsePositiveRate > 1) {
+            throw new IllegalArgumentException("maxFalsePositiveRate must be within [0, 1], \nmaxFalsePositiveRate: " + maxFalsePositiveRate);
+        }
+        if (maxBytes < Long.BYTES) {
+            throw new IllegalArgumentException("maxBytes must be at least " + Long.BYTES + ", \nmaxBytes: " + maxBytes);
+        }
+        return new LongRangeFilter(rangeSet, maxFalsePositiveRate, maxBytes);
+    }
+
+    /**
+     * Returns false if value is definitely not contained, true if it might be contained.
+     */
+    public boolean mightContain(long value) {
+        return blocks.mightContain(value);
+    }
+
+    /**
+     * Returns true if value is contained, consulting the exact set only if the filter can not rule value out.
+     */
+    public boolean contains(long value) {
+        return blocks.mightContain(value) && rangeSet.contains(value);
+    }
+
+    public LongRangeSet rangeSet() {
+        return rangeSet;
+    }
+
+    /**
+     * Returns the exponent of the block size (<code>2^shift</code> values per block).
+     */
+    public int shift() {
+        return blocks.shift;
+    }
+
+    /**
+     * Returns the memory used by the filter bits in bytes.
+     */
+    public long memoryBytes() {
+        return (long) blocks.bits.length() * Long.BYTES;
+    }
+
+    /**
+     * Returns the share of uncovered values within the span of the set for which {@link #mightContain(long)} returns true.
+     */
+    public double falsePositiveRate() {
+        return falsePositiveRate(rangeSet, blocks.origin, blocks.shift);
+    }
+
+    /**
+     * Replaces the set, rebuilding only the blocks touched by the differences to the current set.<br>
+     * The whole filter is rebuilt if the new set exceeds the span of the filter.
+     * Bits of added ranges are set before the new set is published and bits of removed ranges are cleared afterwards,
+     * so lookups concurrent to an update answer either for the old or for the new set.
+     */
+    public synchronized void update(LongRangeSet newRangeSet) {
+        Blocks current = blocks;
+        if (current.isEmpty() || newRangeSet.isEmpty()
+                || newRangeSet.min(0) < current.origin || newRangeSet.max(newRangeSet.rangeCount() - 1) > current.last) {
+            blocks = Blocks.of(newRangeSet, maxFalsePositiveRate, maxBytes);
+            rangeSet = newRangeSet;
+            return;
+        }
+        RangeSetDiff<Long> changes = rangeSet.diff(newRangeSet);
+        changes.added().streamRanges().forEach(range -> current.set(current.blockOf(range.min()), current.blockOf(range.max())));
+        rangeSet = newRangeSet;
+        changes.removed().streamRanges().forEach(range -> current.clear(range, newRangeSet));
+    }
+
+    private static final class Blocks {
+
+        private final long origin;
+        private final long last;
+        private final int shift;
+        private final AtomicLongArray bits;
+
+        private Blocks(long origin, long last, int shift) {
+            this.origin = origin;
+            this.last = last;
+            this.shift = shift;
+            this.bits = new AtomicLongArray(last < origin ? 0 : (int) wordCount(origin, last, shift));
+        }
+
+        static Blocks of(LongRangeSet rangeSet, double maxFalsePositiveRate, long maxBytes) {
+            if (rangeSet.isEmpty()) {
+                return new Blocks(0, -1, MAX_SHIFT);
+            }
+            long origin = rangeSet.min(0);
+            long last = rangeSet.max(rangeSet.rangeCount() - 1);
+            long maxWords = Math.min(maxBytes / Long.BYTES, Integer.MAX_VALUE - 8);
+            int shift = 0;
+            while (shift < MAX_SHIFT && wordCount(origin, last, shift) > maxWords) {
+                shift++;
+            }
+            // coarser blocks need less memory, but touch more uncovered values
+            while (shift < MAX_SHIFT && falsePositiveRate(rangeSet, origin, shift + 1) <= maxFalsePositiveRate) {
+                shift++;
+            }
+            Blocks blocks = new Blocks(origin, last, shift);
+            for (int i = 0; i < rangeSet.rangeCount(); i++) {
+                blocks.set(blocks.blockOf(rangeSet.min(i)), blocks.blockOf(rangeSet.max(i)));
+            }
+            return blocks;
+        }
+
+        private static long wordCount(long origin, long last, int shift) {
+            long lastBlock = (last - origin) >>> shift;
+            return (lastBlock >>> 6) + 1;
+        }
+
+        boolean isEmpty() {
+            return bits.length() == 0;
+        }
+
+        boolean mightContain(long value) {
+            if (value < origin || value > last) {
+                return false;
+            }
+            long block = (value - origin) >>> shift;
+            return (bits.get((int) (block >>> 6)) & (1L << block)) != 0;
+        }
+
+        long blockOf(long value) {
+            return (value - origin) >>> shift;
+        }
+
+        void set(long fromBlock, long toBlock) {
+            for (long word = fromBlock >>> 6; word <= toBlock >>> 6; word++) {
+                long mask = mask(word, fromBlock, toBlock);
+                bits.getAndUpdate((int) word, bitsOfWord -> bitsOfWord | mask);
+            }
+        }
+
+        /**
+         * Clears the blocks of a removed range, except boundary blocks still touched by rangeSet.
+         */
+        void clear(Range<Long> removed, LongRangeSet rangeSet) {
+            long fromBlock = blockOf(removed.min());
+            long toBlock = blockOf(removed.max());
+            long fromClear = isTouched(fromBlock, rangeSet) ? fromBlock + 1 : fromBlock;
+            long toClear = toBlock > fromBlock && isTouched(toBlock, rangeSet) ? toBlock - 1 : toBlock;
+            for (long word = fromClear >>> 6; fromClear <= toClear && word <= toClear >>> 6; word++) {
+                long mask = ~mask(word, fromClear, toClear);
+                bits.getAndUpdate((int) word, bitsOfWord -> bitsOfWord & mask);
+            }
+        }
+
+        /**
+         * Returns the bits of word lying within fromBlock and toBlock.
+         */
+        private static long mask(long word, long fromBlock, long toBlock) {
+            int low = word == fromBlock >>> 6 ? (int) (fromBlock & 63) : 0;
+            int high = word == toBlock >>> 6 ? (int) (toBlock & 63) : 63;
+            return (-1L >>> (63 - high)) & (-1L << low);
+        }
+
+        private boolean isTouched(long block, LongRangeSet rangeSet) {
+            long blockMin = origin + (block << shift);
+            long blockMax = Long.compareUnsigned((block << shift) + ((1L << shift) - 1), last - origin) > 0
+                ? last
+                : blockMin + ((1L << shift) - 1);
+            int index = rangeSet.indexOf(blockMin);
+            if (index >= 0) {
+                return true;
+            }
+            int next = -index - 1;
+            return next < rangeSet.rangeCount() && rangeSet.min(next) <= blockMax;
+        }
+    }
+
+    private static double falsePositiveRate(LongRangeSet rangeSet, long origin, int shift) {
+        long last = rangeSet.max(rangeSet.rangeCount() - 1);
+        double covered = 0;
+        double touched = 0;
+        boolean hasTouched = false;
+        long touchedUntilBlock = 0;
+        for (int i = 0; i < rangeSet.rangeCount(); i++) {
+            covered += unsigned(rangeSet.max(i) - rangeSet.min(i)) + 1;
+            long fromBlock = (rangeSet.min(i) - origin) >>> shift;
+            long toBlock = (rangeSet.max(i) - origin) >>> shift;
+            if (hasTouched && Long.compareUnsigned(fromBlock, touchedUntilBlock) <= 0) {
+                fromBlock = touchedUntilBlock + 1;
+            }
+            if (Long.compareUnsigned(fromBlock, toBlock) <= 0) {
+                long firstValue = fromBlock << shift;
+                long lastValue = (toBlock << shift) + ((1L << shift) - 1);
+                if (Long.compareUnsigned(lastValue, last - origin) > 0) {
+                    lastValue = last - origin;
+                }
+                touched += unsigned(lastValue - firstValue) + 1;
+                touchedUntilBlock = toBlock;
+                hasTouched = true;
+            }
+        }
+        double uncovered = unsigned(last - origin) + 1 - covered;
+        return uncovered <= 0 ? 0 : (touched - covered) / uncovered;
+    }
+
+    private static double unsigned(long value) {
+        return value >= 0 ? value : value + 0x1p64;
+    }
+}
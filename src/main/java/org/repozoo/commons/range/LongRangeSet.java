@@ -0,0 +1,403 @@
+package org.repozoo.commons.range;
+
+import org.repozoo.commons.range.factories.LongRange;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An immutable {@link RangeSet} of longs, keeping its bounds in primitive arrays.<br>
+ * Lookups neither box the probed values nor allocate, which makes it the base for bulk
+ * classification of ints, longs or epoch based values (e.g. {@link java.time.LocalDate#toEpochDay()}).
+ */
+public final class LongRangeSet implements RangeSet<Long> {
+
+    private final long[] mins;
+    private final long[] maxs;
+    private final LocateKernel kernel;
+
+    private LongRangeSet(long[] mins, long[] maxs) {
+        this.mins = mins;
+        this.maxs = maxs;
+        this.kernel = LocateKernel.forRangeCount(mins.length);
+    }
+
+    /**
+     * Creates a new {@link LongRangeSet} by mapping the bounds of each range with toLong.<br>
+     * toLong must preserve the order of the values, e.g. <code>LocalDate::toEpochDay</code>.
+     */
+    public static <T> LongRangeSet of(RangeSet<T> rangeSet, ToLongFunction<T> toLong) {
+        long[] mins = new long[8];
+        long[] maxs = new long[8];
+        int count = 0;
+        for (Range<T> range : rangeSet.getRanges()) {
+            long min = toLong.applyAsLong(range.min());
+            long max = toLong.applyAsLong(range.max());
+            if (count > 0 && (min <= maxs[count - 1] || min - 1 == maxs[count - 1])) {
+                maxs[count - 1] = Math.max(max, maxs[count - 1]);
+            } else {
+                if (count == mins.length) {
+                    mins = Arrays.copyOf(mins, count * 2);
+                    maxs = Arrays.copyOf(maxs, count * 2);
+                }
+                mins[count] = min;
+                maxs[count] = max;
+                count++;
+            }
+        }
+        return new LongRangeSet(Arrays.copyOf(mins, count), Arrays.copyOf(maxs, count));
+    }
+
+    /**
+     * Creates a new {@link LongRangeSet} of a {@link RangeSet} of longs.
+     */
+    public static LongRangeSet of(RangeSet<Long> rangeSet) {
+        if (rangeSet instanceof LongRangeSet) {
+            return (LongRangeSet) rangeSet;
+        }
+        return of(rangeSet, Long::longValue);
+    }
+
+    @Override
+    public Stream<Range<Long>> streamRanges() {
+        return IntStream.range(0, mins.length).mapToObj(i -> LongRange.between(mins[i], maxs[i]));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mins.length == 0;
+    }
+
+    /**
+     * Returns the number of ranges in this set.
+     */
+    public int rangeCount() {
+        return mins.length;
+    }
+
+    /**
+     * Returns the minimum of the range at index.
+     */
+    public long min(int index) {
+        return mins[index];
+    }
+
+    /**
+     * Returns the maximum of the range at index.
+     */
+    public long max(int index) {
+        return maxs[index];
+    }
+
+    @Override
+    public boolean contains(Long value) {
+        return contains(value.longValue());
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Returns the index of the range containing value,<br>
+     * or <code>(-(insertion point) - 1)</code> if no range contains it.
+     */
+    public int indexOf(long value) {
+        int low = 0;
+        int high = mins.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (maxs[mid] < value) {
+                low = mid + 1;
+            } else if (mins[mid] > value) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns a {@link BitSet} having bit i set if values[i] lies inside this set.
+     */
+    public BitSet containsAll(long[] values) {
+        long begin = RangeInstrumentation.begin();
+        BitSet result = new BitSet(values.length);
+        int hint = 0;
+        for (int i = 0; i < values.length; i++) {
+            int index = indexOf(values[i], hint);
+            if (index >= 0) {
+                result.set(i);
+                hint = index;
+            } else {
+                hint = -index - 1;
+            }
+        }
+        RangeInstrumentation.endQuery(RangeMetrics.Operation.CONTAINS_ALL, begin, values.length, result.cardinality());
+        return result;
+    }
+
+    /**
+     * Returns a {@link BitSet} having bit i set if values[i] lies inside this set.
+     */
+    public BitSet containsAll(int[] values) {
+        long begin = RangeInstrumentation.begin();
+        BitSet result = new BitSet(values.length);
+        int hint = 0;
+        for (int i = 0; i < values.length; i++) {
+            int index = indexOf(values[i], hint);
+            if (index >= 0) {
+                result.set(i);
+                hint = index;
+            } else {
+                hint = -index - 1;
+            }
+        }
+        RangeInstrumentation.endQuery(RangeMetrics.Operation.CONTAINS_ALL, begin, values.length, result.cardinality());
+        return result;
+    }
+
+    /**
+     * Returns for each of values the index of the range containing it, or -1 if there is none.
+     */
+    public int[] bucketize(long[] values) {
+        long begin = RangeInstrumentation.begin();
+        int[] result = new int[values.length];
+        int hint = 0;
+        int hits = 0;
+        for (int i = 0; i < values.length; i++) {
+            int index = indexOf(values[i], hint);
+            if (index >= 0) {
+                result[i] = index;
+                hint = index;
+                hits++;
+            } else {
+                result[i] = -1;
+                hint = -index - 1;
+            }
+        }
+        RangeInstrumentation.endQuery(RangeMetrics.Operation.BUCKETIZE, begin, values.length, hits);
+        return result;
+    }
+
+    /**
+     * Returns for each of values the index of the range containing it, or -1 if there is none.
+     */
+    public int[] bucketize(int[] values) {
+        long begin = RangeInstrumentation.begin();
+        int[] result = new int[values.length];
+        int hint = 0;
+        int hits = 0;
+        for (int i = 0; i < values.length; i++) {
+            int index = indexOf(values[i], hint);
+            if (index >= 0) {
+                result[i] = index;
+                hint = index;
+                hits++;
+            } else {
+                result[i] = -1;
+                hint = -index - 1;
+            }
+        }
+        RangeInstrumentation.endQuery(RangeMetrics.Operation.BUCKETIZE, begin, values.length, hits);
+        return result;
+    }
+
+    /**
+     * Writes for each of values the index of the range containing it, or -1 if there is none, into outRangeIndex.<br>
+     * Unlike {@link #bucketize(int[])}, values are not expected to be sorted:
+     * each value is located by a branch-free search of fixed length, or a vector kernel for sets of few ranges (see {@link LocateKernel}),
+     * which keeps the loop free of unpredictable branches and cheap for unordered input.
+     */
+    public void classify(int[] values, int[] outRangeIndex) {
+        long begin = RangeInstrumentation.begin();
+        checkCapacity(outRangeIndex.length, values.length);
+        locate(values.length, (offset, block) -> load(values, offset, block),
+            (offset, count, rangeIndexes) -> System.arraycopy(rangeIndexes, 0, outRangeIndex, offset, count));
+        if (begin != RangeInstrumentation.DISABLED) {
+            RangeInstrumentation.endQuery(RangeMetrics.Operation.BUCKETIZE, begin, values.length, countHits(outRangeIndex, values.length));
+        }
+    }
+
+    /**
+     * Writes for each of values the index of the range containing it, or -1 if there is none, into outRangeIndex.
+     *
+     * @see #classify(int[], int[])
+     */
+    public void classify(long[] values, int[] outRangeIndex) {
+        long begin = RangeInstrumentation.begin();
+        checkCapacity(outRangeIndex.length, values.length);
+        kernel.locate(mins, maxs, values, 0, values.length, outRangeIndex);
+        if (begin != RangeInstrumentation.DISABLED) {
+            RangeInstrumentation.endQuery(RangeMetrics.Operation.BUCKETIZE, begin, values.length, countHits(outRangeIndex, values.length));
+        }
+    }
+
+    /**
+     * Sets bit i of outBits (bit <code>i % 64</code> of word <code>i / 64</code>) if values[i] lies inside this set, clears it otherwise.
+     *
+     * @see #classify(int[], int[])
+     */
+    public void mask(long[] values, long[] outBits) {
+        long begin = RangeInstrumentation.begin();
+        checkCapacity((long) outBits.length * Long.SIZE, values.length);
+        locate(values.length, (offset, block) -> load(values, offset, block),
+            (offset, count, rangeIndexes) -> outBits[offset / Long.SIZE] = toBits(rangeIndexes, count));
+        if (begin != RangeInstrumentation.DISABLED) {
+            RangeInstrumentation.endQuery(RangeMetrics.Operation.CONTAINS_ALL, begin, values.length, countBits(outBits, values.length));
+        }
+    }
+
+    /**
+     * Sets bit i of outBits if values[i] lies inside this set, clears it otherwise.
+     *
+     * @see #mask(long[], long[])
+     */
+    public void mask(int[] values, long[] outBits) {
+        long begin = RangeInstrumentation.begin();
+        checkCapacity((long) outBits.length * Long.SIZE, values.length);
+        locate(values.length, (offset, block) -> load(values, offset, block),
+            (offset, count, rangeIndexes) -> outBits[offset / Long.SIZE] = toBits(rangeIndexes, count));
+        if (begin != RangeInstrumentation.DISABLED) {
+            RangeInstrumentation.endQuery(RangeMetrics.Operation.CONTAINS_ALL, begin, values.length, countBits(outBits, values.length));
+        }
+    }
+
+    /**
+     * Passes all values in ascending order to chunkConsumer, in arrays of size values (the last one may be smaller), without boxing.<br>
+     * Each array is filled arithmetically and handed over, it is not reused.
+     */
+    public void forEachLongChunk(int size, Consumer<long[]> chunkConsumer) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive, \nsize: " + size);
+        }
+        long[] chunk = new long[size];
+        int filled = 0;
+        for (int i = 0; i < mins.length; i++) {
+            long value = mins[i];
+            while (true) {
+                long remaining = maxs[i] - value;
+                int take = Long.compareUnsigned(remaining, size - filled) < 0 ? (int) remaining + 1 : size - filled;
+                for (int k = 0; k < take; k++) {
+                    chunk[filled + k] = value + k;
+                }
+                filled += take;
+                if (filled == size) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new long[size];
+                    filled = 0;
+                }
+                if (take - 1 == remaining) {
+                    break;
+                }
+                value += take;
+            }
+        }
+        if (filled > 0) {
+            chunkConsumer.accept(Arrays.copyOf(chunk, filled));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return RangeSet.toString(this);
+    }
+
+    /**
+     * Locates length values in blocks of 64, the one loop behind {@link #classify(int[], int[])} and {@link #mask(long[], long[])}:
+     * source loads the values at offset into a block, sink receives the range indexes of each block.
+     */
+    private void locate(int length, BlockSource source, BlockSink sink) {
+        long[] block = new long[Long.SIZE];
+        int[] rangeIndexes = new int[Long.SIZE];
+        for (int offset = 0; offset < length; offset += Long.SIZE) {
+            int count = Math.min(Long.SIZE, length - offset);
+            source.load(offset, block);
+            kernel.locate(mins, maxs, block, 0, count, rangeIndexes);
+            sink.accept(offset, count, rangeIndexes);
+        }
+    }
+
+    private static void load(int[] values, int offset, long[] block) {
+        int count = Math.min(block.length, values.length - offset);
+        for (int i = 0; i < count; i++) {
+            block[i] = values[offset + i];
+        }
+    }
+
+    private static void load(long[] values, int offset, long[] block) {
+        System.arraycopy(values, offset, block, 0, Math.min(block.length, values.length - offset));
+    }
+
+    /**
+     * Returns a word having bit i set if rangeIndexes[i] is not -1.
+     */
+    private static long toBits(int[] rangeIndexes, int count) {
+        long bits = 0L;
+        for (int i = 0; i < count; i++) {
+            bits |= (long) (rangeIndexes[i] >>> 31 ^ 1) << i;
+        }
+        return bits;
+    }
+
+    private static long countHits(int[] rangeIndexes, int length) {
+        long hits = 0;
+        for (int i = 0; i < length; i++) {
+            hits += rangeIndexes[i] >>> 31 ^ 1;
+        }
+        return hits;
+    }
+
+    private static long countBits(long[] bits, int length) {
+        long hits = 0;
+        for (int word = 0; word * Long.SIZE < length; word++) {
+            hits += Long.bitCount(bits[word]);
+        }
+        return hits;
+    }
+
+    private static void checkCapacity(long capacity, int required) {
+        if (capacity < required) {
+            throw new IllegalArgumentException("output too small, \nrequired: " + required + "\navailable: " + capacity);
+        }
+    }
+
+    /**
+     * Like {@link #indexOf(long)}, but gallops forward from hint if value lies at or after the range at hint.
+     */
+    private int indexOf(long value, int hint) {
+        int size = mins.length;
+        if (hint >= size || hint < 0 || mins[hint] > value) {
+            return indexOf(value);
+        }
+        int low = hint;
+        int step = 1;
+        int high = hint + step;
+        while (high < size && maxs[high] < value) {
+            low = high;
+            step <<= 1;
+            high = hint + step;
+        }
+        int index = Arrays.binarySearch(maxs, low, Math.min(high + 1, size), value);
+        int candidate = index >= 0 ? index : -index - 1;
+        if (candidate < size && mins[candidate] <= value) {
+            return candidate;
+        }
+        return -(candidate + 1);
+    }
+
+    @FunctionalInterface
+    private interface BlockSource {
+        void load(int offset, long[] block);
+    }
+
+    @FunctionalInterface
+    private interface BlockSink {
+        void accept(int offset, int count, int[] rangeIndexes);
+    }
+}
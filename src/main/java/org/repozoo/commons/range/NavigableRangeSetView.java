@@ -0,0 +1,346 @@
+package org.repozoo.commons.range;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * A read-only {@link NavigableSet} of the values of an {@link IndexedRangeSet}, optionally bounded and/or descending.<br>
+ * Navigation is a binary search over the ranges, sub views only narrow the bounds,
+ * and {@link #size()} is computed from the ranks of the first and last value (see {@link IndexedRangeSet#rank(Object)}).
+ * Values are neither copied nor enumerated unless iterated.
+ * <p>
+ * Bounds are kept inclusive, exclusive bounds being replaced by the nearest value of the set.
+ * Unlike {@link java.util.TreeSet}, sub views accept bounds outside their parent view and intersect them.
+ */
+final class NavigableRangeSetView<T> extends AbstractSet<T> implements NavigableSet<T> {
+
+    private final IndexedRangeSet<T> ranges;
+    private final Value<T> lo;
+    private final Value<T> hi;
+    private final boolean descending;
+
+    NavigableRangeSetView(IndexedRangeSet<T> ranges, Value<T> lo, Value<T> hi, boolean descending) {
+        this.ranges = ranges;
+        this.lo = lo;
+        this.hi = hi;
+        this.descending = descending;
+    }
+
+    @Override
+    public int size() {
+        Value<T> first = ascFirst();
+        if (first == null) {
+            return 0;
+        }
+        long size = ranges.rank(ascLast().value()) - ranges.rank(first.value()) + 1;
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ascFirst() == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        if (ranges.isEmpty()) {
+            return false;
+        }
+        T t = (T) o;
+        Value<T> value = value(t);
+        return (lo == null || value.isAfterOrEqual(lo)) && (hi == null || value.isBeforeOrEqual(hi)) && ranges.contains(t);
+    }
+
+    @Override
+    public T lower(T t) {
+        return valueOf(descending ? ascHigher(t) : ascLower(t));
+    }
+
+    @Override
+    public T floor(T t) {
+        return valueOf(descending ? ascCeiling(t) : ascFloor(t));
+    }
+
+    @Override
+    public T ceiling(T t) {
+        return valueOf(descending ? ascFloor(t) : ascCeiling(t));
+    }
+
+    @Override
+    public T higher(T t) {
+        return valueOf(descending ? ascLower(t) : ascHigher(t));
+    }
+
+    @Override
+    public T first() {
+        return required(descending ? ascLast() : ascFirst());
+    }
+
+    @Override
+    public T last() {
+        return required(descending ? ascFirst() : ascLast());
+    }
+
+    @Override
+    public T pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public T pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return descending ? new DescendingIterator() : new AscendingIterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return descending ? new AscendingIterator() : new DescendingIterator();
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new NavigableRangeSetView<>(ranges, lo, hi, !descending);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        Value<T> any = ranges.range(0).minValue();
+        Comparator<T> ascending = (a, b) -> any.with(a).compareToValue(b);
+        return descending ? ascending.reversed() : ascending;
+    }
+
+    @Override
+    public NavigableSet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+        Comparator<? super T> comparator = comparator();
+        if (comparator != null && comparator.compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement must not be after toElement, \nfromElement: " + fromElement + "\ntoElement: " + toElement);
+        }
+        return descending
+                ? bounded(toElement, toInclusive, fromElement, fromInclusive)
+                : bounded(fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(T toElement, boolean inclusive) {
+        return descending ? bounded(toElement, inclusive, null, true) : bounded(null, true, toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(T fromElement, boolean inclusive) {
+        return descending ? bounded(null, true, fromElement, inclusive) : bounded(fromElement, inclusive, null, true);
+    }
+
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    /**
+     * Returns a view narrowed to [low, high] in ascending order, a null bound leaving the current one.
+     */
+    private NavigableSet<T> bounded(T low, boolean lowInclusive, T high, boolean highInclusive) {
+        if (ranges.isEmpty()) {
+            return this;
+        }
+        Value<T> newLo = lo;
+        if (low != null) {
+            newLo = lowInclusive ? max(lo, value(low)) : ascHigher(low);
+        }
+        Value<T> newHi = hi;
+        if (high != null) {
+            newHi = highInclusive ? min(hi, value(high)) : ascLower(high);
+        }
+        if ((low != null && newLo == null) || (high != null && newHi == null)) {
+            return new NavigableRangeSetView<>(new IndexedRangeSet<>(List.of()), null, null, descending);
+        }
+        return new NavigableRangeSetView<>(ranges, newLo, newHi, descending);
+    }
+
+    private Value<T> ascFirst() {
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        return lo != null ? ascCeiling(lo) : withinHi(ranges.range(0).minValue());
+    }
+
+    private Value<T> ascLast() {
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        return hi != null ? ascFloor(hi) : withinLo(ranges.range(ranges.rangeCount() - 1).maxValue());
+    }
+
+    private Value<T> ascCeiling(T t) {
+        return ranges.isEmpty() ? null : ascCeiling(value(t));
+    }
+
+    private Value<T> ascCeiling(Value<T> value) {
+        if (lo != null && value.isBefore(lo)) {
+            value = lo;
+        }
+        int index = ranges.indexOf(value.value());
+        if (index >= 0) {
+            return withinHi(value);
+        }
+        int insertion = -index - 1;
+        return insertion < ranges.rangeCount() ? withinHi(ranges.range(insertion).minValue()) : null;
+    }
+
+    private Value<T> ascFloor(T t) {
+        return ranges.isEmpty() ? null : ascFloor(value(t));
+    }
+
+    private Value<T> ascFloor(Value<T> value) {
+        if (hi != null && value.isAfter(hi)) {
+            value = hi;
+        }
+        int index = ranges.indexOf(value.value());
+        if (index >= 0) {
+            return withinLo(value);
+        }
+        int insertion = -index - 1;
+        return insertion > 0 ? withinLo(ranges.range(insertion - 1).maxValue()) : null;
+    }
+
+    private Value<T> ascHigher(T t) {
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        Value<T> value = value(t);
+        if (lo != null && value.isBefore(lo)) {
+            return ascCeiling(lo);
+        }
+        int index = ranges.indexOf(t);
+        int next = index >= 0 ? index + 1 : -index - 1;
+        if (index >= 0 && value.isBefore(ranges.range(index).maxValue())) {
+            return withinHi(value.next());
+        }
+        return next < ranges.rangeCount() ? withinHi(ranges.range(next).minValue()) : null;
+    }
+
+    private Value<T> ascLower(T t) {
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        Value<T> value = value(t);
+        if (hi != null && value.isAfter(hi)) {
+            return ascFloor(hi);
+        }
+        int index = ranges.indexOf(t);
+        int previous = index >= 0 ? index - 1 : -index - 2;
+        if (index >= 0 && value.isAfter(ranges.range(index).minValue())) {
+            return withinLo(value.previous());
+        }
+        return previous >= 0 ? withinLo(ranges.range(previous).maxValue()) : null;
+    }
+
+    private Value<T> withinHi(Value<T> value) {
+        return hi == null || value.isBeforeOrEqual(hi) ? value : null;
+    }
+
+    private Value<T> withinLo(Value<T> value) {
+        return lo == null || value.isAfterOrEqual(lo) ? value : null;
+    }
+
+    private Value<T> value(T t) {
+        return ranges.range(0).minValue().with(t);
+    }
+
+    private static <T> Value<T> max(Value<T> a, Value<T> b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    private static <T> Value<T> min(Value<T> a, Value<T> b) {
+        return a == null || b.isBefore(a) ? b : a;
+    }
+
+    private static <T> T valueOf(Value<T> value) {
+        return value == null ? null : value.value();
+    }
+
+    private static <T> T required(Value<T> value) {
+        if (value == null) {
+            throw new NoSuchElementException();
+        }
+        return value.value();
+    }
+
+    private final class AscendingIterator implements Iterator<T> {
+
+        private final Value<T> last = ascLast();
+        private Value<T> current = ascFirst();
+        private int index = current == null ? -1 : ranges.indexOf(current.value());
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        public T next() {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            T result = current.value();
+            if (current.isEqualTo(last)) {
+                current = null;
+            } else if (current.isBefore(ranges.range(index).maxValue())) {
+                current = current.next();
+            } else {
+                current = ranges.range(++index).minValue();
+            }
+            return result;
+        }
+    }
+
+    private final class DescendingIterator implements Iterator<T> {
+
+        private final Value<T> first = ascFirst();
+        private Value<T> current = ascLast();
+        private int index = current == null ? -1 : ranges.indexOf(current.value());
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        public T next() {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            T result = current.value();
+            if (current.isEqualTo(first)) {
+                current = null;
+            } else if (current.isAfter(ranges.range(index).minValue())) {
+                current = current.previous();
+            } else {
+                current = ranges.range(--index).maxValue();
+            }
+            return result;
+        }
+    }
+}
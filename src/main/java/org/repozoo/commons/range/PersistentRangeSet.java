@@ -0,0 +1,290 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable {@link RangeSet} sharing its structure with the versions it was derived from.<br>
+ * The ranges are kept in a treap (a randomized balanced binary search tree) which is never modified:
+ * {@link #add(Range)} and {@link #remove(Range)} copy only the O(log n) nodes on the paths they touch
+ * and share all other nodes with the previous version.<br>
+ * Therefore keeping many versions costs O(log n) memory per update, and all versions can be read
+ * concurrently without locking.
+ */
+public final class PersistentRangeSet<T> implements RangeSet<T> {
+
+    private static final PersistentRangeSet<?> EMPTY = new PersistentRangeSet<>(null);
+
+    private final Node<T> root;
+    private int hashCode;
+
+    private PersistentRangeSet(Node<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns an empty {@link PersistentRangeSet}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentRangeSet<T> empty() {
+        return (PersistentRangeSet<T>) EMPTY;
+    }
+
+    /**
+     * Creates a new {@link PersistentRangeSet} containing all ranges of rangeSet.
+     */
+    public static <T> PersistentRangeSet<T> of(RangeSet<T> rangeSet) {
+        if (rangeSet instanceof PersistentRangeSet) {
+            return (PersistentRangeSet<T>) rangeSet;
+        }
+        return PersistentRangeSet.<T>empty().add(rangeSet);
+    }
+
+    /**
+     * Returns a new version containing range as well, this version remains unchanged.
+     */
+    public PersistentRangeSet<T> add(Range<T> range) {
+        Split<T> before = split(root, r -> r.maxValue().next().isBefore(range.minValue()));
+        Split<T> touching = split(before.right, r -> !r.minValue().previous().isAfter(range.maxValue()));
+        Value<T> min = range.minValue();
+        Value<T> max = range.maxValue();
+        if (touching.left != null) {
+            Value<T> first = leftmost(touching.left).range.minValue();
+            Value<T> last = rightmost(touching.left).range.maxValue();
+            min = first.isBefore(min) ? first : min;
+            max = last.isAfter(max) ? last : max;
+        }
+        Node<T> merged = new Node<>(Range.between(min, max), null, null);
+        return new PersistentRangeSet<>(merge(merge(before.left, merged), touching.right));
+    }
+
+    /**
+     * Returns a new version not containing range, this version remains unchanged.
+     */
+    public PersistentRangeSet<T> remove(Range<T> range) {
+        Split<T> before = split(root, r -> r.isBefore(range));
+        Split<T> intersecting = split(before.right, r -> !r.isAfter(range));
+        if (intersecting.left == null) {
+            return this;
+        }
+        Node<T> result = before.left;
+        Range<T> first = leftmost(intersecting.left).range;
+        if (first.startsBefore(range)) {
+            result = merge(result, new Node<>(Range.between(first.minValue(), range.minValue().previous()), null, null));
+        }
+        Range<T> last = rightmost(intersecting.left).range;
+        if (last.endsAfter(range)) {
+            result = merge(result, new Node<>(Range.between(range.maxValue().next(), last.maxValue()), null, null));
+        }
+        return new PersistentRangeSet<>(merge(result, intersecting.right));
+    }
+
+    @Override
+    public PersistentRangeSet<T> add(RangeSet<T> others) {
+        PersistentRangeSet<T> result = this;
+        for (Range<T> range : others.getRanges()) {
+            result = result.add(range);
+        }
+        return result;
+    }
+
+    @Override
+    public PersistentRangeSet<T> remove(RangeSet<T> others) {
+        PersistentRangeSet<T> result = this;
+        for (Range<T> range : others.getRanges()) {
+            result = result.remove(range);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int location = node.range.locate(value);
+            if (location == 0) {
+                return node.range.admits(value);
+            }
+            node = location < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public Stream<Range<T>> streamRanges() {
+        Spliterator<Range<T>> spliterator = Spliterators.spliteratorUnknownSize(new InOrder<>(root),
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Equal to a {@link PersistentRangeSet} or an {@link IndexedRangeSet} having the same ranges, whatever versions they were derived from.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PersistentRangeSet || o instanceof IndexedRangeSet) || hashCode() != o.hashCode()) {
+            return false;
+        }
+        Iterator<Range<T>> ranges = new InOrder<>(root);
+        Iterator<? extends Range<?>> others = ((RangeSet<?>) o).streamRanges().iterator();
+        while (ranges.hasNext() && others.hasNext()) {
+            if (!ranges.next().equals(others.next())) {
+                return false;
+            }
+        }
+        return !ranges.hasNext() && !others.hasNext();
+    }
+
+    /**
+     * Returns the {@link java.util.List#hashCode()} of the ranges, as {@link IndexedRangeSet} does, computed once.
+     */
+    @Override
+    public int hashCode() {
+        int hash = hashCode;
+        if (hash == 0) {
+            hash = 1;
+            for (Iterator<Range<T>> ranges = new InOrder<>(root); ranges.hasNext(); ) {
+                hash = 31 * hash + ranges.next().hashCode();
+            }
+            hashCode = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentRangeSet" + getRanges();
+    }
+
+    private static final class Node<T> {
+
+        private final Range<T> range;
+        private final int priority;
+        private final Node<T> left;
+        private final Node<T> right;
+
+        Node(Range<T> range, Node<T> left, Node<T> right) {
+            this(range, ThreadLocalRandom.current().nextInt(), left, right);
+        }
+
+        private Node(Range<T> range, int priority, Node<T> left, Node<T> right) {
+            this.range = range;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+        }
+
+        Node<T> withLeft(Node<T> newLeft) {
+            return newLeft == left ? this : new Node<>(range, priority, newLeft, right);
+        }
+
+        Node<T> withRight(Node<T> newRight) {
+            return newRight == right ? this : new Node<>(range, priority, left, newRight);
+        }
+    }
+
+    private static final class Split<T> {
+
+        private final Node<T> left;
+        private final Node<T> right;
+
+        Split(Node<T> left, Node<T> right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Splits node into the ranges matching isLeft and the ones following them, isLeft must be true for a prefix only.
+     */
+    private static <T> Split<T> split(Node<T> node, Predicate<Range<T>> isLeft) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (isLeft.test(node.range)) {
+            Split<T> split = split(node.right, isLeft);
+            return new Split<>(node.withRight(split.left), split.right);
+        } else {
+            Split<T> split = split(node.left, isLeft);
+            return new Split<>(split.left, node.withLeft(split.right));
+        }
+    }
+
+    /**
+     * Joins two trees, all ranges of left being before all ranges of right.
+     */
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withRight(merge(left.right, right));
+        } else {
+            return right.withLeft(merge(left, right.left));
+        }
+    }
+
+    private static <T> Node<T> leftmost(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static <T> Node<T> rightmost(Node<T> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static final class InOrder<T> implements Iterator<Range<T>> {
+
+        private final Deque<Node<T>> path = new ArrayDeque<>();
+
+        InOrder(Node<T> root) {
+            pushLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Range<T> next() {
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<T> node = path.pop();
+            pushLeft(node.right);
+            return node.range;
+        }
+
+        private void pushLeft(Node<T> node) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+        }
+    }
+}
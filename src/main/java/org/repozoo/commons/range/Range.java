@@ -4,6 +4,7 @@ import lombok.EqualsAndHashCode;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -49,8 +50,9 @@ public class Range<T> implements RangeSet<T> {
     /**
      * Returns true if t lies inside this range.
      */
+    @Override
     public boolean contains(T t) {
-        return minValue().isBeforeOrEqual(t) && maxValue().isAfterOrEqual(t);
+        return locate(t) == 0 && admits(t);
     }
 
     /**
@@ -70,9 +72,10 @@ public class Range<T> implements RangeSet<T> {
 
     @Override
     public RangeSet<T> intersection(RangeSet<T> others) {
-        return others.streamRanges()
-            .map(other -> Range.intersection(this, other))
-            .reduce(RangeSet.empty(), RangeSet::mergeOverlappingAndAdjacent);
+        long begin = RangeInstrumentation.begin();
+        List<Range<T>> intersections = intersectionOf(this, others);
+        RangeInstrumentation.end(RangeMetrics.Operation.INTERSECTION, begin, 1, intersections.size());
+        return new IndexedRangeSet<>(intersections);
     }
 
     /**
@@ -109,6 +112,26 @@ public class Range<T> implements RangeSet<T> {
             .map(Value::value);
     }
 
+    @Override
+    public Stream<T> streamValues(long step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive, \nstep: " + step);
+        }
+        long count = (countValues() - 1) / step + 1;
+        return Stream
+            .iterate(minValue(), value -> value.plus(step))
+            .limit(count)
+            .map(Value::value);
+    }
+
+    /**
+     * Returns the number of values in this range.
+     */
+    @Override
+    public long countValues() {
+        return minValue().distanceTo(maxValue()) + 1;
+    }
+
     /**
      * Returns true if this.min < other.min.
      */
@@ -123,6 +146,24 @@ public class Range<T> implements RangeSet<T> {
         return maxValue().isAfter(other.maxValue());
     }
 
+    /**
+     * Returns a negative number if t lies before, zero if t lies inside and a positive number if t lies after this range.<br>
+     * Membership (see {@link RangeFactory.CreateRangeBuilder#withMembership}) is not checked, use {@link #admits} for t located inside.
+     */
+    int locate(T t) {
+        if (minValue().compareToValue(t) > 0) {
+            return -1;
+        }
+        return maxValue().compareToValue(t) < 0 ? 1 : 0;
+    }
+
+    /**
+     * Returns false if t is excluded from this range although lying between min and max (e.g. a weekend day).
+     */
+    boolean admits(T t) {
+        return minValue().admits(t);
+    }
+
     boolean intersects(Range<T> other) {
         return this.contains(other.minValue()) || this.contains(other.maxValue()) || other.contains(this);
     }
@@ -166,7 +207,7 @@ public class Range<T> implements RangeSet<T> {
             } else if (aRange.contains(toRemove) && (toRemove.minValue().isAfter(aRange.minValue()) && toRemove.maxValue().isBefore(aRange.maxValue()))) {
                 Range<T> r1 = Range.between(aRange.minValue(), toRemove.minValue().previous());
                 Range<T> r2 = Range.between(toRemove.maxValue().next(), aRange.maxValue());
-                return RangeSet.of(r1, r2);
+                return new IndexedRangeSet<>(List.of(r1, r2));
             } else {
                 if (toRemove.minValue().isAfter(aRange.minValue())) {
                     return Range.between(aRange.minValue(), toRemove.minValue().previous());
@@ -179,6 +220,13 @@ public class Range<T> implements RangeSet<T> {
         }
     }
 
+    /**
+     * Returns the normalized parts of aRange which lie in others, without recording an operation.
+     */
+    static <T> List<Range<T>> intersectionOf(Range<T> aRange, RangeSet<T> others) {
+        return RangeNormalization.normalize(others.streamRanges().flatMap(other -> intersection(aRange, other).streamRanges()));
+    }
+
     private static <T> RangeSet<T> intersection(Range<T> aRange, Range<T> other) {
         if (aRange.intersects(other)) {
             Value<T> maxStart = max(Range::minValue, aRange, other);
@@ -0,0 +1,210 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy {@link RangeSet}, recording set operations instead of computing them.<br>
+ * <pre>RangeExpression.of(a).add(b).remove(c).intersection(d)</pre>
+ * neither sorts nor materializes any intermediate set. The whole expression is evaluated in one sweep over
+ * all (sorted) operands as soon as its ranges are streamed, and {@link #isEmpty()}, {@link #intersects(RangeSet)}
+ * or {@link #contains(Object)} stop at the first range deciding the answer.
+ */
+public final class RangeExpression<T> implements RangeSet<T> {
+
+    private final List<RangeSet<T>> operands;
+    private final IntPredicate isCovered;
+
+    private RangeExpression(List<RangeSet<T>> operands, IntPredicate isCovered) {
+        if (operands.size() > RangeSweep.MAX_OPERANDS) {
+            throw new IllegalArgumentException("too many operands, \nmax: " + RangeSweep.MAX_OPERANDS + "\nactual: " + operands.size());
+        }
+        this.operands = operands;
+        this.isCovered = isCovered;
+    }
+
+    /**
+     * Creates an expression of a single operand.
+     */
+    public static <T> RangeExpression<T> of(RangeSet<T> rangeSet) {
+        if (rangeSet instanceof RangeExpression) {
+            return (RangeExpression<T>) rangeSet;
+        }
+        return new RangeExpression<>(List.of(rangeSet), mask -> mask != 0);
+    }
+
+    /**
+     * Returns the lazy union of this and others.
+     */
+    @Override
+    public RangeExpression<T> add(RangeSet<T> others) {
+        return combine(others, (a, b) -> a || b);
+    }
+
+    /**
+     * Returns the lazy difference of this and others.
+     */
+    @Override
+    public RangeExpression<T> remove(RangeSet<T> others) {
+        return combine(others, (a, b) -> a && !b);
+    }
+
+    /**
+     * Returns the lazy intersection of this and others.
+     */
+    @Override
+    public RangeExpression<T> intersection(RangeSet<T> others) {
+        return combine(others, (a, b) -> a && b);
+    }
+
+    /**
+     * Returns the lazy complement of this expression.<br>
+     * As a complement is unbounded, it must be intersected with (or removed from) a bounded set before its ranges can be streamed.
+     */
+    public RangeExpression<T> complement() {
+        IntPredicate covered = isCovered;
+        return new RangeExpression<>(operands, mask -> !covered.test(mask));
+    }
+
+    /**
+     * Evaluates this expression into a materialized {@link RangeSet}.
+     */
+    public RangeSet<T> evaluate() {
+        RangeSweep.requireBounded(isCovered);
+        return new IndexedRangeSet<>(getRanges());
+    }
+
+    /**
+     * Returns true if this expression covers value, without sweeping (each operand is asked once).
+     */
+    @Override
+    public boolean contains(T value) {
+        int mask = 0;
+        for (int i = 0; i < operands.size(); i++) {
+            if (operands.get(i).contains(value)) {
+                mask |= 1 << i;
+            }
+        }
+        return isCovered.test(mask);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (isCovered.test(0)) {
+            return false;
+        }
+        RangeSweep<T> sweep = new RangeSweep<>(operands);
+        while (sweep.hasNext()) {
+            if (isCovered.test(sweep.next().mask())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean intersects(RangeSet<T> others) {
+        return !intersection(others).isEmpty();
+    }
+
+    @Override
+    public List<Range<T>> getRanges() {
+        List<Range<T>> ranges = new ArrayList<>();
+        new Ranges().forEachRemaining(ranges::add);
+        return Collections.unmodifiableList(ranges);
+    }
+
+    /**
+     * Returns the ranges of this expression, computed while the stream is consumed.
+     *
+     * @throws IllegalStateException if this expression is unbounded, e.g. a complement not intersected with a bounded set
+     */
+    @Override
+    public Stream<Range<T>> streamRanges() {
+        Spliterator<Range<T>> spliterator = Spliterators.spliteratorUnknownSize(new Ranges(),
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public String toString() {
+        return "RangeExpression{operands=" + operands.size() + '}';
+    }
+
+    private interface Operator {
+        boolean apply(boolean a, boolean b);
+    }
+
+    private RangeExpression<T> combine(RangeSet<T> others, Operator operator) {
+        RangeExpression<T> other = of(others);
+        int shift = operands.size();
+        int ownBits = (1 << shift) - 1;
+        IntPredicate own = isCovered;
+        IntPredicate theirs = other.isCovered;
+        List<RangeSet<T>> combined = new ArrayList<>(operands);
+        combined.addAll(other.operands);
+        return new RangeExpression<>(combined, mask -> operator.apply(own.test(mask & ownBits), theirs.test(mask >>> shift)));
+    }
+
+    /**
+     * Iterates the covered segments of a sweep, merging adjacent ones.
+     */
+    private final class Ranges implements Iterator<Range<T>> {
+
+        private final RangeSweep<T> sweep;
+        private Range<T> pending;
+        private Range<T> next;
+
+        Ranges() {
+            RangeSweep.requireBounded(isCovered);
+            this.sweep = new RangeSweep<>(operands);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Range<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Range<T> range = next;
+            next = null;
+            return range;
+        }
+
+        private Range<T> advance() {
+            while (sweep.hasNext()) {
+                RangeSweep.Segment<T> segment = sweep.next();
+                if (isCovered.test(segment.mask())) {
+                    Range<T> range = segment.range();
+                    if (pending == null) {
+                        pending = range;
+                    } else if (pending.maxValue().next().isEqualTo(range.minValue())) {
+                        pending = Range.between(pending.minValue(), range.maxValue());
+                    } else {
+                        Range<T> completed = pending;
+                        pending = range;
+                        return completed;
+                    }
+                }
+            }
+            Range<T> completed = pending;
+            pending = null;
+            return completed;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.repozoo.commons.range;
 
 import java.util.Comparator;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
 public class RangeFactory {
@@ -9,6 +10,26 @@ public class RangeFactory {
         Range<T> between(T min, T max);
     }
 
+    /**
+     * Computes the number of next steps needed to get from one value to another, without iterating.
+     */
+    public interface Distance<T> {
+        /**
+         * Returns the number of next steps from 'from' to 'to', negative if 'to' lies before 'from'.
+         */
+        long between(T from, T to);
+    }
+
+    /**
+     * Computes the value a number of next steps away from another value, without iterating.
+     */
+    public interface Offset<T> {
+        /**
+         * Returns the value 'steps' next steps after value (previous steps if steps is negative).
+         */
+        T plus(T value, long steps);
+    }
+
     @SuppressWarnings("unused")
     public static <Y> CreateRangeBuilder<Y> forType(Class<Y> rangeType) {
         //until now, rangeType is syntactic sugar only
@@ -18,12 +39,42 @@ public class RangeFactory {
     public static class CreateRangeBuilder<Y> {
 
         private Comparator<Y> comparator;
-        private ValueIterator<Y> iterator;
+        private UnaryOperator<Y> next;
+        private UnaryOperator<Y> previous;
+        private Distance<Y> distance;
+        private Offset<Y> offset;
+        private Predicate<Y> membership;
 
         CreateRangeBuilder() {}
 
         public CreateRangeBuilder<Y> withIterator(UnaryOperator<Y> next, UnaryOperator<Y> previous) {
-            this.iterator = new ValueIterator<>(next, previous);
+            this.next = next;
+            this.previous = previous;
+            return this;
+        }
+
+        /**
+         * Optional, lets distances (e.g. gap lengths) be computed arithmetically instead of by iterating.
+         */
+        public CreateRangeBuilder<Y> withDistance(Distance<Y> distance) {
+            this.distance = distance;
+            return this;
+        }
+
+        /**
+         * Optional, lets values be selected by position (e.g. the k-th value of a set) arithmetically instead of by iterating.
+         */
+        public CreateRangeBuilder<Y> withOffset(Offset<Y> offset) {
+            this.offset = offset;
+            return this;
+        }
+
+        /**
+         * Optional, restricts the values of a range to those passing membership (e.g. working days),<br>
+         * values between min and max failing it are not contained by the range.
+         */
+        public CreateRangeBuilder<Y> withMembership(Predicate<Y> membership) {
+            this.membership = membership;
             return this;
         }
 
@@ -33,6 +84,7 @@ public class RangeFactory {
         }
 
         public CreateRange<Y> build() {
+            ValueIterator<Y> iterator = new ValueIterator<>(next, previous, distance, offset, membership);
             return (from, to) -> {
                 Value<Y> min = new Value<>(from, iterator, comparator);
                 Value<Y> max = new Value<>(to, iterator, comparator);
@@ -0,0 +1,112 @@
+package org.repozoo.commons.range;
+
+/**
+ * Opt-in instrumentation of normalization, set operations and bulk queries.<br>
+ * Measurements go to a {@link RangeMetrics} (see {@link #enableMetrics(RangeMetrics)}) and/or to JFR as
+ * <code>org.repozoo.commons.range.RangeOperation</code> and <code>org.repozoo.commons.range.RangeQuery</code>
+ * events (see {@link #enableEvents()}).<br>
+ * Only the operation called is recorded, not the operations it performs internally.
+ * While disabled, an operation pays for reading one volatile field, so the instrumentation can stay compiled in.
+ * <pre>
+ * long begin = RangeInstrumentation.begin();
+ * ... // the operation
+ * RangeInstrumentation.end(RangeMetrics.Operation.ADD, begin, inputRanges, outputRanges);
+ * </pre>
+ */
+public final class RangeInstrumentation {
+
+    /**
+     * Returned by {@link #begin()} while disabled.
+     */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    private static volatile RangeMetrics metrics;
+    private static volatile boolean isEventsEnabled;
+    private static volatile boolean isEnabled;
+
+    private RangeInstrumentation() {}
+
+    /**
+     * Sends the measurements of all following operations to metrics (replacing a previous one).
+     */
+    public static synchronized void enableMetrics(RangeMetrics metrics) {
+        RangeInstrumentation.metrics = metrics;
+        isEnabled = true;
+    }
+
+    /**
+     * Commits a JFR event per following operation, if enabled in the running recording.
+     */
+    public static synchronized void enableEvents() {
+        isEventsEnabled = true;
+        isEnabled = true;
+    }
+
+    /**
+     * Disables metrics and events.
+     */
+    public static synchronized void disable() {
+        isEnabled = false;
+        isEventsEnabled = false;
+        metrics = null;
+    }
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Returns the start time of an operation, or {@link #DISABLED}.
+     */
+    public static long begin() {
+        return isEnabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Records an operation started at begin, does nothing if begin is {@link #DISABLED}.
+     */
+    public static void end(RangeMetrics.Operation operation, long begin, long inputRanges, long outputRanges) {
+        if (begin == DISABLED) {
+            return;
+        }
+        long duration = System.nanoTime() - begin;
+        RangeMetrics currentMetrics = metrics;
+        if (currentMetrics != null) {
+            currentMetrics.record(operation, inputRanges, outputRanges, duration);
+        }
+        if (isEventsEnabled) {
+            RangeOperationEvent event = new RangeOperationEvent();
+            if (event.isEnabled()) {
+                event.operation = operation.name();
+                event.inputRanges = inputRanges;
+                event.outputRanges = outputRanges;
+                event.elapsed = duration;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Records a bulk query started at begin, does nothing if begin is {@link #DISABLED}.
+     */
+    public static void endQuery(RangeMetrics.Operation operation, long begin, long values, long hits) {
+        if (begin == DISABLED) {
+            return;
+        }
+        long duration = System.nanoTime() - begin;
+        RangeMetrics currentMetrics = metrics;
+        if (currentMetrics != null) {
+            currentMetrics.recordQuery(operation, values, hits, duration);
+        }
+        if (isEventsEnabled) {
+            RangeQueryEvent event = new RangeQueryEvent();
+            if (event.isEnabled()) {
+                event.operation = operation.name();
+                event.values = values;
+                event.hits = hits;
+                event.elapsed = duration;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.repozoo.commons.range;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Joins two collections on overlapping {@link Range}s.<br>
+ * Both sides are sorted by Range::min once, afterwards each pair is found by a forward scan starting at
+ * the element with the later min, which makes a join cost <code>O((n+m) log(n+m) + output)</code>
+ * instead of the <code>O(n*m)</code> of nested {@link RangeSet#intersects(RangeSet)} calls.
+ */
+public final class RangeJoin {
+
+    private RangeJoin() {}
+
+    /**
+     * A pair of overlapping elements together with the intersection of their ranges.
+     */
+    public record Match<L, R, T>(L left, R right, Range<T> intersection) {}
+
+    /**
+     * Returns a stream of all pairs of left and right elements whose ranges intersect.<br>
+     * Example:<br>
+     * <ul>
+     *     <li><pre>left(a[1-5], b[8-9])</pre></li>
+     *     <li><pre>right(x[4-8])</pre></li>
+     * </ul>
+     * <pre>join(left, right) returns (a, x, [4-5]), (b, x, [8-8])</pre>
+     * The input collections do not need to be sorted, the order of the returned matches is undefined.
+     */
+    public static <L, R, T> Stream<Match<L, R, T>> join(Collection<L> left, Function<L, Range<T>> leftRange,
+                                                        Collection<R> right, Function<R, Range<T>> rightRange) {
+        return join(left, leftRange, right, rightRange, false);
+    }
+
+    /**
+     * Like {@link #join(Collection, Function, Collection, Function)}, but scans partitions of both sides in parallel.
+     */
+    public static <L, R, T> Stream<Match<L, R, T>> joinParallel(Collection<L> left, Function<L, Range<T>> leftRange,
+                                                                Collection<R> right, Function<R, Range<T>> rightRange) {
+        return join(left, leftRange, right, rightRange, true);
+    }
+
+    private static <L, R, T> Stream<Match<L, R, T>> join(Collection<L> left, Function<L, Range<T>> leftRange,
+                                                         Collection<R> right, Function<R, Range<T>> rightRange,
+                                                         boolean parallel) {
+        List<Keyed<L, T>> lefts = sorted(left, leftRange, parallel);
+        List<Keyed<R, T>> rights = sorted(right, rightRange, parallel);
+        // pairs where left starts first (or both start together)
+        Stream<Match<L, R, T>> leftFirst = indices(lefts.size(), parallel).boxed().flatMap(i -> {
+            Keyed<L, T> l = lefts.get(i);
+            return scan(rights, firstIndex(rights, l.range().minValue(), false), l.range())
+                .map(r -> new Match<>(l.element(), r.element(), intersection(l.range(), r.range())));
+        });
+        // pairs where right starts strictly first
+        Stream<Match<L, R, T>> rightFirst = indices(rights.size(), parallel).boxed().flatMap(i -> {
+            Keyed<R, T> r = rights.get(i);
+            return scan(lefts, firstIndex(lefts, r.range().minValue(), true), r.range())
+                .map(l -> new Match<>(l.element(), r.element(), intersection(r.range(), l.range())));
+        });
+        Stream<Match<L, R, T>> matches = Stream.concat(leftFirst, rightFirst);
+        return parallel ? matches.parallel() : matches;
+    }
+
+    private record Keyed<E, T>(E element, Range<T> range) {}
+
+    private static <E, T> List<Keyed<E, T>> sorted(Collection<E> elements, Function<E, Range<T>> toRange, boolean parallel) {
+        Stream<E> stream = parallel ? elements.parallelStream() : elements.stream();
+        return stream
+            .map(element -> new Keyed<>(element, toRange.apply(element)))
+            .sorted(Comparator.comparing(keyed -> keyed.range().minValue()))
+            .collect(Collectors.toList());
+    }
+
+    private static IntStream indices(int size, boolean parallel) {
+        IntStream indices = IntStream.range(0, size);
+        return parallel ? indices.parallel() : indices;
+    }
+
+    /**
+     * Returns the elements starting at fromIndex whose min is not after range.max.
+     */
+    private static <E, T> Stream<Keyed<E, T>> scan(List<Keyed<E, T>> sorted, int fromIndex, Range<T> range) {
+        int toIndex = fromIndex;
+        while (toIndex < sorted.size() && !sorted.get(toIndex).range().minValue().isAfter(range.maxValue())) {
+            toIndex++;
+        }
+        return sorted.subList(fromIndex, toIndex).stream();
+    }
+
+    /**
+     * Returns the index of the first element whose min is after (strict) or not before (!strict) min.
+     */
+    private static <E, T> int firstIndex(List<Keyed<E, T>> sorted, Value<T> min, boolean strict) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = sorted.get(mid).range().minValue().compareTo(min);
+            if (comparison < 0 || (strict && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the intersection of two ranges, the second one starting within the first one.
+     */
+    private static <T> Range<T> intersection(Range<T> first, Range<T> second) {
+        Value<T> max = first.maxValue().isBefore(second.maxValue()) ? first.maxValue() : second.maxValue();
+        return Range.between(second.minValue(), max);
+    }
+}
@@ -0,0 +1,44 @@
+package org.repozoo.commons.range;
+
+/**
+ * Receives measurements of range set operations, see {@link RangeInstrumentation#enableMetrics(RangeMetrics)}.<br>
+ * Implementations are called on the thread performing the operation and must be thread safe and fast,
+ * e.g. by incrementing counters only, see {@link RangeStatistics}.
+ */
+public interface RangeMetrics {
+
+    enum Operation {
+        /**
+         * Sorting and merging ranges into a normalized set, e.g. by {@link RangeSet#of(Range[])}.
+         */
+        NORMALIZE,
+        ADD,
+        REMOVE,
+        INTERSECTION,
+        /**
+         * Bulk membership queries, e.g. {@link RangeSet#containsAll(java.util.List)}, see {@link #recordQuery}.
+         */
+        CONTAINS_ALL,
+        /**
+         * Bulk range lookups, e.g. {@link RangeSet#bucketize(java.util.List)}, see {@link #recordQuery}.
+         */
+        BUCKETIZE,
+        /**
+         * Filtering a stream of values, e.g. by {@link RangeSet#filter(java.util.stream.Stream)},
+         * recorded once the stream is fully traversed, see {@link #recordQuery}.
+         */
+        FILTER
+    }
+
+    /**
+     * Records one operation, taking durationNanos.<br>
+     * inputRanges and outputRanges are the number of ranges going in and coming out.
+     */
+    void record(Operation operation, long inputRanges, long outputRanges, long durationNanos);
+
+    /**
+     * Records one bulk query, taking durationNanos.<br>
+     * values is the number of values queried, hits the number of those lying inside the set.
+     */
+    void recordQuery(Operation operation, long values, long hits, long durationNanos);
+}
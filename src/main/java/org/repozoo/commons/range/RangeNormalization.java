@@ -0,0 +1,58 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Stack;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Sorts and merges ranges into normalized form, without recording to {@link RangeInstrumentation}.<br>
+ * Used by the instrumented entry points and by operations which normalize internally,
+ * so nested normalizations are not recorded as operations of their own.
+ */
+final class RangeNormalization {
+
+    private RangeNormalization() {}
+
+    /**
+     * Returns ranges sorted by min, overlapping and adjacent ones being merged.
+     */
+    static <T> List<Range<T>> normalize(Stream<Range<T>> ranges) {
+        return new ArrayList<>(ranges.sorted(Comparator.comparing(Range::minValue)).collect(toStack()));
+    }
+
+    private static <T> Collector<Range<T>, Stack<Range<T>>, Stack<Range<T>>> toStack() {
+        return Collector.of(
+            Stack::new,
+            RangeNormalization::addOnTop,
+            RangeNormalization::combineStacks
+        );
+    }
+
+    private static <T> void addOnTop(Stack<Range<T>> stack, Range<T> range) {
+        if (stack.isEmpty()) {
+            stack.push(range);
+        } else {
+            Range<T> topRange = stack.pop();
+            if (topRange.intersects(range) || topRange.maxValue().next().isEqualTo(range.minValue())) {
+                stack.push(Range.newRangeFromGlobalMinMax(topRange, range));
+            } else {
+                stack.push(topRange);
+                stack.push(range);
+            }
+        }
+    }
+
+    /**
+     * Combines the partial results of a parallel stream: the ranges of stack2 follow those of stack1 in sort order,
+     * so they are merged by adding them on top one by one.
+     */
+    private static <T> Stack<Range<T>> combineStacks(Stack<Range<T>> stack1, Stack<Range<T>> stack2) {
+        for (Range<T> range : stack2) {
+            addOnTop(stack1, range);
+        }
+        return stack1;
+    }
+}
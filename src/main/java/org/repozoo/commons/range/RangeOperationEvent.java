@@ -0,0 +1,33 @@
+package org.repozoo.commons.range;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The JFR event committed per normalization or set operation, see {@link RangeInstrumentation#enableEvents()}.
+ */
+@Name("org.repozoo.commons.range.RangeOperation")
+@Label("Range Operation")
+@Category("Range")
+@Description("A normalization or set operation of a RangeSet")
+@StackTrace(false)
+final class RangeOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Input Ranges")
+    long inputRanges;
+
+    @Label("Output Ranges")
+    long outputRanges;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,249 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * {@link Flow.Publisher}s emitting the ranges or values of a {@link RangeSet}, computing them only as requested.<br>
+ * Each subscriber gets its own pass over the set. Signals are emitted on the thread calling
+ * {@link Flow.Subscription#request(long)}, one thread at a time, coordinated by an atomic demand counter
+ * instead of locks, so subscribers may run on virtual threads without pinning their carrier.
+ * <pre>
+ * RangePublisher.values(minutes).subscribe(subscriber);   // subscriber requests e.g. 1000 values at a time
+ * </pre>
+ */
+public final class RangePublisher {
+
+    private RangePublisher() {}
+
+    public static <T> Flow.Publisher<Range<T>> ranges(RangeSet<T> rangeSet) {
+        return subscriber -> subscribe(subscriber, () -> rangeSet.streamRanges().iterator());
+    }
+
+    public static <T> Flow.Publisher<T> values(RangeSet<T> rangeSet) {
+        return subscriber -> subscribe(subscriber, () -> values(rangeSet.streamRanges().iterator()));
+    }
+
+    /**
+     * Returns a publisher emitting the values in lists of size values (the last one may be smaller),
+     * so one requested item carries a whole batch of values.
+     */
+    public static <T> Flow.Publisher<List<T>> valueChunks(RangeSet<T> rangeSet, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive, \nsize: " + size);
+        }
+        return subscriber -> subscribe(subscriber, () -> chunks(values(rangeSet.streamRanges().iterator()), size));
+    }
+
+    private static <E> void subscribe(Flow.Subscriber<? super E> subscriber, Supplier<Iterator<E>> iterator) {
+        Objects.requireNonNull(subscriber);
+        subscriber.onSubscribe(new IteratorSubscription<>(subscriber, iterator));
+    }
+
+    /**
+     * Returns the values of ranges one by one, stepping by {@link Value#next()}.<br>
+     * Unlike an iterator of {@link RangeSet#streamValues()}, this never buffers the values of a whole range.
+     */
+    private static <T> Iterator<T> values(Iterator<Range<T>> ranges) {
+        return new Iterator<>() {
+
+            private Value<T> current;
+            private Value<T> max;
+
+            @Override
+            public boolean hasNext() {
+                return current != null || ranges.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (current == null) {
+                    Range<T> range = ranges.next();
+                    current = range.minValue();
+                    max = range.maxValue();
+                }
+                T value = current.value();
+                current = current.isEqualTo(max) ? null : current.next();
+                return value;
+            }
+        };
+    }
+
+    private static <T> Iterator<List<T>> chunks(Iterator<T> values, int size) {
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                if (!values.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> chunk = new ArrayList<>(size);
+                while (chunk.size() < size && values.hasNext()) {
+                    chunk.add(values.next());
+                }
+                return chunk;
+            }
+        };
+    }
+
+    /**
+     * Emits the elements of an iterator, created on the first request.<br>
+     * Only the thread raising the demand from 0 drains, others just add to the demand,
+     * which also keeps requests made from within onNext from recursing.
+     * Cancelling and invalid requests add demand as well, so the error is signalled
+     * and the iterator released by the draining thread only.
+     */
+    private static final class IteratorSubscription<E> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super E> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile Throwable pendingError;
+        private Supplier<Iterator<E>> iteratorSupplier;
+        private Iterator<E> iterator;
+
+        IteratorSubscription(Flow.Subscriber<? super E> subscriber, Supplier<Iterator<E>> iteratorSupplier) {
+            this.subscriber = subscriber;
+            this.iteratorSupplier = iteratorSupplier;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (pendingError == null) {
+                    pendingError = new IllegalArgumentException("n must be positive (reactive streams rule 3.9), \nn: " + n);
+                }
+                n = 1;
+            }
+            if (addDemand(n) == 0) {
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            if (addDemand(1) == 0) {
+                drain();
+            }
+        }
+
+        private void drain() {
+            long requested = demand.get();
+            long emitted = 0;
+            try {
+                while (true) {
+                    while (emitted != requested) {
+                        if (isTerminated()) {
+                            return;
+                        }
+                        if (!iterator().hasNext()) {
+                            complete();
+                            return;
+                        }
+                        subscriber.onNext(iterator.next());
+                        emitted++;
+                    }
+                    if (isTerminated()) {
+                        return;
+                    }
+                    if (!iterator().hasNext()) {
+                        complete();
+                        return;
+                    }
+                    requested = removeDemand(emitted);
+                    emitted = 0;
+                    if (requested == 0) {
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                error(e);
+            }
+        }
+
+        private Iterator<E> iterator() {
+            if (iterator == null) {
+                iterator = iteratorSupplier.get();
+            }
+            return iterator;
+        }
+
+        /**
+         * Returns true if this subscription was cancelled or has a pending error, which is signalled now.
+         */
+        private boolean isTerminated() {
+            Throwable error = pendingError;
+            if (error != null) {
+                error(error);
+                return true;
+            }
+            if (cancelled) {
+                release();
+                return true;
+            }
+            return false;
+        }
+
+        private void complete() {
+            if (!cancelled) {
+                cancelled = true;
+                release();
+                subscriber.onComplete();
+            }
+        }
+
+        private void error(Throwable error) {
+            if (!cancelled) {
+                cancelled = true;
+                release();
+                subscriber.onError(error);
+            }
+        }
+
+        private void release() {
+            iterator = null;
+            iteratorSupplier = null;
+        }
+
+        /**
+         * Adds n to the demand, capped at Long.MAX_VALUE (meaning unbounded), and returns the previous demand.
+         */
+        private long addDemand(long n) {
+            while (true) {
+                long current = demand.get();
+                long updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+                if (demand.compareAndSet(current, updated)) {
+                    return current;
+                }
+            }
+        }
+
+        /**
+         * Removes emitted from the demand unless it is unbounded, and returns the remaining demand.
+         */
+        private long removeDemand(long emitted) {
+            while (true) {
+                long current = demand.get();
+                if (current == Long.MAX_VALUE) {
+                    return current;
+                }
+                long updated = current - emitted;
+                if (demand.compareAndSet(current, updated)) {
+                    return updated;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.repozoo.commons.range;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The JFR event committed per bulk query, see {@link RangeInstrumentation#enableEvents()}.
+ */
+@Name("org.repozoo.commons.range.RangeQuery")
+@Label("Range Query")
+@Category("Range")
+@Description("A bulk membership query, lookup or filter of values against a RangeSet")
+@StackTrace(false)
+final class RangeQueryEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Values")
+    long values;
+
+    @Label("Hits")
+    long hits;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -3,7 +3,6 @@ package org.repozoo.commons.range;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -19,10 +18,123 @@ public interface RangeSet<T> {
         return streamRanges().flatMap(Range::streamValues);
     }
 
+    /**
+     * Returns every step-th value of each range, starting at the range's min.<br>
+     * Values are computed by the factory's offset function if there is one, instead of stepping one by one.
+     * <pre>
+     * LocalDateRange.between(jan1, jan31).streamValues(7) // jan1, jan8, jan15, jan22, jan29
+     * </pre>
+     */
+    default Stream<T> streamValues(long step) {
+        return streamRanges().flatMap(range -> range.streamValues(step));
+    }
+
     default void forEachValue(Consumer<T> valueConsumer) {
         streamValues().forEach(valueConsumer);
     }
 
+    /**
+     * Passes all values in ascending order to chunkConsumer, in lists of size values (the last one may be smaller).<br>
+     * Chunks span range boundaries, the number of values per range is computed by the factory's distance function if there is one,
+     * the values by its offset function if there is one, instead of stepping one by one.
+     */
+    default void forEachChunk(int size, Consumer<List<T>> chunkConsumer) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive, \nsize: " + size);
+        }
+        List<T> chunk = new ArrayList<>(size);
+        Iterator<Range<T>> ranges = streamRanges().iterator();
+        while (ranges.hasNext()) {
+            Range<T> range = ranges.next();
+            long count = range.countValues();
+            Value<T> min = range.minValue();
+            Value<T> value = min;
+            for (long position = 0; position < count; position++) {
+                if (position > 0) {
+                    value = min.hasOffset() ? min.plus(position) : value.next();
+                }
+                chunk.add(value.value());
+                if (chunk.size() == size) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(size);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+        }
+    }
+
+    /**
+     * Returns the number of values in this set, computed per range by the factory's distance function if there is one.
+     */
+    default long countValues() {
+        return streamRanges().mapToLong(Range::countValues).sum();
+    }
+
+    /**
+     * Merges neighbouring ranges separated by at most maxGap missing values.<br>
+     * Example: <pre>[1-3], [5-6], [9-9] coalesce(1) -> [1-6], [9-9], 1 value added</pre>
+     */
+    default Simplification<T> coalesce(long maxGap) {
+        return Simplification.coalesce(this, maxGap);
+    }
+
+    /**
+     * Removes all ranges having less than minValues values.
+     */
+    default Simplification<T> dropShorterThan(long minValues) {
+        return Simplification.dropShorterThan(this, minValues);
+    }
+
+    /**
+     * Merges neighbouring ranges, closing the smallest gaps first, until at most maxRanges ranges are left.
+     */
+    default Simplification<T> reduceTo(int maxRanges) {
+        return Simplification.reduceTo(this, maxRanges);
+    }
+
+    /**
+     * Returns a read-only {@link NavigableSet} of the values of this set, backed by its ranges instead of a copy of its values.<br>
+     * Navigation and sub views cost a binary search, <code>size()</code> is computed by the factory's distance function if there is one.
+     * <pre>
+     * NavigableSet&lt;LocalDate&gt; days = LocalDateRange.between(jan1, dec31).asNavigableSet();
+     * </pre>
+     */
+    default NavigableSet<T> asNavigableSet() {
+        return new NavigableRangeSetView<>(IndexedRangeSet.of(this), null, null, false);
+    }
+
+
+    /**
+     * Returns true if any {@link Range} of this set contains value.
+     */
+    default boolean contains(T value) {
+        return streamRanges().anyMatch(range -> range.contains(value));
+    }
+
+    /**
+     * Returns a {@link BitSet} having bit i set if the i-th of values lies inside this set.<br>
+     * Ascending values are matched in a single merge-scan, unordered ones by binary search.
+     */
+    default BitSet containsAll(List<T> values) {
+        return IndexedRangeSet.of(this).containsAll(values);
+    }
+
+    /**
+     * Returns for each of values the index of the {@link Range} (see {@link #getRanges()}) containing it, or -1 if there is none.<br>
+     * Ascending values are matched in a single merge-scan, unordered ones by binary search.
+     */
+    default int[] bucketize(List<T> values) {
+        return IndexedRangeSet.of(this).bucketize(values);
+    }
+
+    /**
+     * Returns a stream of those values lying inside this set.
+     */
+    default Stream<T> filter(Stream<T> values) {
+        return IndexedRangeSet.of(this).filter(values);
+    }
 
     /**
      * Returns true if the following is true for each {@link Range} of others:<br>
@@ -43,10 +155,13 @@ public interface RangeSet<T> {
      * Returns a new RangeSet containing all {@link Range} parts that exist in this and others.
      */
     default RangeSet<T> intersection(RangeSet<T> others) {
-        List<Range<T>> intersections = streamRanges()
-            .map(others::intersection)
-            .flatMap(RangeSet::streamRanges)
-            .collect(Collectors.toList());
+        long begin = RangeInstrumentation.begin();
+        List<Range<T>> ranges = getRanges();
+        List<Range<T>> intersections = new ArrayList<>();
+        for (Range<T> range : ranges) {
+            intersections.addAll(Range.intersectionOf(range, others));
+        }
+        RangeInstrumentation.end(RangeMetrics.Operation.INTERSECTION, begin, ranges.size(), intersections.size());
         return newRangeSet(intersections);
     }
 
@@ -67,7 +182,7 @@ public interface RangeSet<T> {
      * <pre>rs1.add(rs2) returns rs3([1-5],[7-12])</pre>
      */
     default RangeSet<T> add(RangeSet<T> others) {
-        return RangeSet.mergeOverlappingAndAdjacent(this, others);
+        return mergeOverlappingAndAdjacent(Stream.concat(streamRanges(), others.streamRanges()), RangeMetrics.Operation.ADD);
     }
 
     /**
@@ -80,8 +195,10 @@ public interface RangeSet<T> {
      * <pre>rs1.remove(rs2) returns rs3([1-2],[5-5],[7-8])</pre>
      */
     default RangeSet<T> remove(RangeSet<T> others) {
+        long begin = RangeInstrumentation.begin();
+        List<Range<T>> ranges = getRanges();
         List<Range<T>> newRanges = new ArrayList<>();
-        getRanges().forEach(range -> {
+        ranges.forEach(range -> {
             Stack<Range<T>> stack = new Stack<>();
             stack.push(range);
             others.streamRanges().forEach(other -> {
@@ -93,9 +210,39 @@ public interface RangeSet<T> {
             });
             newRanges.addAll(stack);
         });
+        RangeInstrumentation.end(RangeMetrics.Operation.REMOVE, begin, ranges.size(), newRanges.size());
         return newRangeSet(newRanges);
     }
 
+    /**
+     * Returns the ranges within bounds not covered by this set, in ascending order.<br>
+     * The gaps are computed while the stream is consumed.
+     */
+    default Stream<Range<T>> complement(Range<T> bounds) {
+        return RangeExpression.of(bounds).remove(this).streamRanges();
+    }
+
+    /**
+     * Returns the changes turning this set into other, found in a single merge pass over both sets.<br>
+     * Example:<br>
+     * <ul>
+     *     <li><pre>rs1([1-5],[7-10])</pre></li>
+     *     <li><pre>rs2([3-8])</pre></li>
+     * </ul>
+     * <pre>rs1.diff(rs2) returns added([6-6]), removed([1-2],[9-10])</pre>
+     */
+    default RangeSetDiff<T> diff(RangeSet<T> other) {
+        return RangeSetDiff.between(this, other);
+    }
+
+    /**
+     * Returns a new {@link RangeSet} with changes applied, i.e. changes.removed removed and changes.added added.<br>
+     * <pre>a.apply(a.diff(b))</pre> equals b.
+     */
+    default RangeSet<T> apply(RangeSetDiff<T> changes) {
+        return changes.applyTo(this);
+    }
+
     /**
      * Returns true if this set has no range
      */
@@ -124,12 +271,12 @@ public interface RangeSet<T> {
     @SafeVarargs
     static <T> RangeSet<T> of(Range<T>... ranges) {
         Objects.requireNonNull(ranges);
-        return mergeOverlappingAndAdjacent(Arrays.stream(ranges));
+        return mergeOverlappingAndAdjacent(Arrays.stream(ranges), RangeMetrics.Operation.NORMALIZE);
     }
 
     static <T> RangeSet<T> of(Collection<Range<T>> ranges) {
         Objects.requireNonNull(ranges);
-        return mergeOverlappingAndAdjacent(ranges.stream());
+        return mergeOverlappingAndAdjacent(ranges.stream(), RangeMetrics.Operation.NORMALIZE);
     }
 
     /**
@@ -145,54 +292,36 @@ public interface RangeSet<T> {
                 set1.streamRanges(),
                 set2.streamRanges()
             );
-        return RangeSet.mergeOverlappingAndAdjacent(rangeStream);
+        return RangeSet.mergeOverlappingAndAdjacent(rangeStream, RangeMetrics.Operation.NORMALIZE);
     }
 
     /**
-     * TODO
+     * Returns the ranges of rangeSet, one {@link Range#toString()} per line.<br>
+     * For a text which can be parsed again see {@link RangeSetFormat}.
      */
     static <T> String toString(RangeSet<T> rangeSet) {
-        return rangeSet.streamRanges().map(Range::toString).collect(Collectors.joining("\n"));
-    }
-
-    private static <T> RangeSet<T> mergeOverlappingAndAdjacent(Stream<Range<T>> rangeStream) {
-        Stack<Range<T>> stackedRanges = rangeStream.sorted(Comparator.comparing(Range::minValue)).collect(RangeSet.toStack());
-        return newRangeSet(stackedRanges);
-    }
-
-    private static <T> RangeSet<T> newRangeSet(Collection<Range<T>> rangeCollection) {
-        return rangeCollection::stream;
-    }
-
-    @SafeVarargs
-    private static <T> RangeSet<T> newRangeSet(Range<T>... ranges) {
-        return Arrays.asList(ranges)::stream;
-    }
-
-    private static <T> Collector<Range<T>, Stack<Range<T>>, Stack<Range<T>>> toStack() {
-        return Collector.of(
-            Stack::new,
-            RangeSet::addOnTop,
-            RangeSet::combineStacks
-        );
+        StringBuilder text = new StringBuilder();
+        rangeSet.streamRanges().forEachOrdered(range -> {
+            if (!text.isEmpty()) {
+                text.append('\n');
+            }
+            text.append(range);
+        });
+        return text.toString();
     }
 
-    private static <T> void addOnTop(Stack<Range<T>> stack, Range<T> range) {
-        if (stack.isEmpty()) {
-            stack.push(range);
-        } else {
-            Range<T> topRange = stack.pop();
-            RangeSet<T> sum;
-            if (topRange.intersects(range) || topRange.maxValue().next().isEqualTo(range.minValue())) {
-                sum = Range.newRangeFromGlobalMinMax(topRange, range);
-            } else {
-                sum = newRangeSet(topRange, range);
-            }
-            sum.getRanges().forEach(stack::push);
+    private static <T> RangeSet<T> mergeOverlappingAndAdjacent(Stream<Range<T>> rangeStream, RangeMetrics.Operation operation) {
+        long begin = RangeInstrumentation.begin();
+        long[] inputRanges = {0};
+        if (begin != RangeInstrumentation.DISABLED) {
+            rangeStream = rangeStream.peek(range -> inputRanges[0]++);
         }
+        List<Range<T>> normalized = RangeNormalization.normalize(rangeStream);
+        RangeInstrumentation.end(operation, begin, inputRanges[0], normalized.size());
+        return newRangeSet(normalized);
     }
 
-    private static <T> Stack<Range<T>> combineStacks(Stack<Range<T>> stack1, Stack<Range<T>> stack2) {
-        throw new UnsupportedOperationException("TODO implement ...");
+    private static <T> RangeSet<T> newRangeSet(Collection<Range<T>> rangeCollection) {
+        return new IndexedRangeSet<>(new ArrayList<>(rangeCollection));
     }
 }
@@ -0,0 +1,129 @@
+package org.repozoo.commons.range;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+
+/**
+ * An opt-in memoizing layer for {@link RangeSet} operations, e.g. intersecting a few seasonal calendars
+ * with the ranges of thousands of requests.<br>
+ * Results are kept in a bounded LRU cache keyed by operation and operands. Operands are compared structurally
+ * (by their ranges), so equal sets hit the cache even if they are different instances. The hash of an operand is
+ * computed once per {@link IndexedRangeSet}, passing indexed sets (e.g. created by {@link RangeSet#of(Range[])}) keeps lookups cheap.<br>
+ * The cache is thread safe, results are computed outside its lock.
+ */
+public final class RangeSetCache<T> {
+
+    private enum Operation {
+        ADD, REMOVE, INTERSECTION
+    }
+
+    private record Key<T>(Operation operation, IndexedRangeSet<T> left, IndexedRangeSet<T> right) {}
+
+    private final int maxSize;
+    private final Map<Key<T>, IndexedRangeSet<T>> results;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most maxSize results, evicting the least recently used one first.
+     */
+    public RangeSetCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive, \nmaxSize: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key<T>, IndexedRangeSet<T>> eldest) {
+                if (size() > RangeSetCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the (possibly cached) result of <code>left.add(right)</code>.
+     */
+    public RangeSet<T> add(RangeSet<T> left, RangeSet<T> right) {
+        return compute(Operation.ADD, left, right, RangeSet::add);
+    }
+
+    /**
+     * Returns the (possibly cached) result of <code>left.remove(right)</code>.
+     */
+    public RangeSet<T> remove(RangeSet<T> left, RangeSet<T> right) {
+        return compute(Operation.REMOVE, left, right, RangeSet::remove);
+    }
+
+    /**
+     * Returns the (possibly cached) result of <code>left.intersection(right)</code>.
+     */
+    public RangeSet<T> intersection(RangeSet<T> left, RangeSet<T> right) {
+        return compute(Operation.INTERSECTION, left, right, RangeSet::intersection);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of cached results.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return results.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            results.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private RangeSet<T> compute(Operation operation, RangeSet<T> left, RangeSet<T> right, BinaryOperator<RangeSet<T>> operator) {
+        Key<T> key = new Key<>(operation, IndexedRangeSet.of(left), IndexedRangeSet.of(right));
+        IndexedRangeSet<T> result;
+        lock.lock();
+        try {
+            result = results.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        result = IndexedRangeSet.of(operator.apply(key.left(), key.right()));
+        lock.lock();
+        try {
+            IndexedRangeSet<T> concurrent = results.putIfAbsent(key, result);
+            return concurrent == null ? result : concurrent;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
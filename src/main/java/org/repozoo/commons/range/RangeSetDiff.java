@@ -0,0 +1,46 @@
+package org.repozoo.commons.range;
+
+import java.util.List;
+
+/**
+ * The changes turning one {@link RangeSet} into another, see {@link RangeSet#diff(RangeSet)}.<br>
+ * added and removed never intersect.
+ */
+public record RangeSetDiff<T>(RangeSet<T> added, RangeSet<T> removed) {
+
+    /**
+     * Returns true if both sets are equal.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * Returns the changes reverting this one.
+     */
+    public RangeSetDiff<T> inverse() {
+        return new RangeSetDiff<>(removed, added);
+    }
+
+    static <T> RangeSetDiff<T> between(RangeSet<T> from, RangeSet<T> to) {
+        RangeSweep.Collector<T> added = new RangeSweep.Collector<>();
+        RangeSweep.Collector<T> removed = new RangeSweep.Collector<>();
+        RangeSweep<T> sweep = new RangeSweep<>(List.of(from, to));
+        while (sweep.hasNext()) {
+            RangeSweep.Segment<T> segment = sweep.next();
+            if (segment.mask() == 0b10) {
+                added.add(segment.range());
+            } else if (segment.mask() == 0b01) {
+                removed.add(segment.range());
+            }
+        }
+        return new RangeSetDiff<>(new IndexedRangeSet<>(added.ranges()), new IndexedRangeSet<>(removed.ranges()));
+    }
+
+    RangeSet<T> applyTo(RangeSet<T> rangeSet) {
+        // bit 0: rangeSet, bit 1: added, bit 2: removed
+        List<Range<T>> ranges = RangeSweep.collect(List.of(rangeSet, added, removed),
+            mask -> (mask & 0b010) != 0 || mask == 0b001);
+        return new IndexedRangeSet<>(ranges);
+    }
+}
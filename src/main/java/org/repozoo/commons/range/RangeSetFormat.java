@@ -0,0 +1,192 @@
+package org.repozoo.commons.range;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes {@link RangeSet}s in a line based text notation, one range per line:
+ * <pre>
+ * 2024-01-01..2024-03-31
+ * 2024-05-01
+ * </pre>
+ * A line holding a single value is a range of that value only, blank lines are skipped.<br>
+ * Parsing scans the characters directly (no regular expressions, no substrings) and, if the lines are already
+ * normalized (sorted, neither overlapping nor adjacent), builds the set without sorting or merging.
+ * Files are memory mapped and read as ASCII without decoding them into a String first.
+ */
+public final class RangeSetFormat<T> {
+
+    private static final String SEPARATOR = "..";
+
+    /**
+     * Parses the value within text[start, end), throwing an {@link IllegalArgumentException} if it is invalid.
+     */
+    public interface ValueParser<T> {
+        T parse(CharSequence text, int start, int end);
+    }
+
+    /**
+     * Appends the text of value to out, so that {@link ValueParser} reads it back.
+     */
+    public interface ValuePrinter<T> {
+        void print(T value, Appendable out) throws IOException;
+    }
+
+    private final RangeFactory.CreateRange<T> createRange;
+    private final ValueParser<T> parser;
+    private final ValuePrinter<T> printer;
+
+    private RangeSetFormat(RangeFactory.CreateRange<T> createRange, ValueParser<T> parser, ValuePrinter<T> printer) {
+        this.createRange = createRange;
+        this.parser = parser;
+        this.printer = printer;
+    }
+
+    /**
+     * Creates a format building its ranges by createRange.
+     */
+    public static <T> RangeSetFormat<T> of(RangeFactory.CreateRange<T> createRange, ValueParser<T> parser, ValuePrinter<T> printer) {
+        return new RangeSetFormat<>(createRange, parser, printer);
+    }
+
+    /**
+     * Parses all lines of text, e.g. a String or a {@link java.nio.CharBuffer}.
+     */
+    public RangeSet<T> parse(CharSequence text) {
+        List<Range<T>> ranges = new ArrayList<>();
+        boolean normalized = true;
+        int length = text.length();
+        int lineNumber = 0;
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && text.charAt(end) != '\n') {
+                end++;
+            }
+            lineNumber++;
+            Range<T> range = parseLine(text, start, end, lineNumber);
+            if (range != null) {
+                if (normalized && !ranges.isEmpty()) {
+                    Value<T> previousMax = ranges.get(ranges.size() - 1).maxValue();
+                    normalized = previousMax.isBefore(range.minValue()) && !previousMax.next().isEqualTo(range.minValue());
+                }
+                ranges.add(range);
+            }
+            start = end + 1;
+        }
+        return normalized ? new IndexedRangeSet<>(ranges) : RangeSet.of(ranges);
+    }
+
+    /**
+     * Parses an ASCII file, which is memory mapped instead of being read into a String.
+     */
+    public RangeSet<T> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("file too large, \nfile: " + file + "\nsize: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return parse(new AsciiSequence(buffer, 0, (int) size));
+        }
+    }
+
+    /**
+     * Appends all ranges of rangeSet to out, one per line.
+     */
+    public void format(RangeSet<T> rangeSet, Appendable out) throws IOException {
+        for (Range<T> range : (Iterable<Range<T>>) rangeSet.streamRanges()::iterator) {
+            printer.print(range.min(), out);
+            if (!range.minValue().isEqualTo(range.maxValue())) {
+                out.append(SEPARATOR);
+                printer.print(range.max(), out);
+            }
+            out.append('\n');
+        }
+    }
+
+    public String format(RangeSet<T> rangeSet) {
+        StringBuilder text = new StringBuilder();
+        try {
+            format(rangeSet, text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    private Range<T> parseLine(CharSequence text, int start, int end, int lineNumber) {
+        if (end > start && text.charAt(end - 1) == '\r') {
+            end--;
+        }
+        while (start < end && text.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        int separator = start;
+        while (separator < end - 1 && !(text.charAt(separator) == '.' && text.charAt(separator + 1) == '.')) {
+            separator++;
+        }
+        try {
+            if (separator == end - 1) {
+                T value = parser.parse(text, start, end);
+                return createRange.between(value, value);
+            }
+            return createRange.between(parser.parse(text, start, separator), parser.parse(text, separator + 2, end));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid range, \nline: " + lineNumber + "\ntext: " + text.subSequence(start, end), e);
+        }
+    }
+
+    /**
+     * Presents the bytes of an ASCII encoded buffer as characters, without copying them.
+     */
+    private static final class AsciiSequence implements CharSequence {
+
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        AsciiSequence(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new AsciiSequence(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = charAt(i);
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A thread safe index holding one {@link RangeSet} per key, e.g. the availability of millions of rooms.<br>
+ * Sets are stored as immutable {@link IndexedRangeSet}s, or with {@link LongBounds} as one array of long bounds per key
+ * (e.g. epoch days), which saves the range and value objects of each set.
+ * Reads never lock and cross key queries skip most keys by their span (first min, last max) alone.<br>
+ * Writes to the same key are serialized by one of a fixed number of lock stripes.
+ * <pre>
+ * new RangeSetIndex&lt;&gt;(new RangeSetIndex.LongBounds&lt;&gt;(LocalDate::toEpochDay, LocalDate::ofEpochDay, LocalDateRange::between));
+ * </pre>
+ */
+public final class RangeSetIndex<K, T> {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final Map<K, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks;
+    private final LongBounds<T> longBounds;
+
+    public RangeSetIndex() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates an index whose writes are serialized by the given number of lock stripes.
+     */
+    public RangeSetIndex(int stripes) {
+        this(stripes, null);
+    }
+
+    /**
+     * Creates an index storing the bounds of each set as longs, see {@link LongBounds}.
+     */
+    public RangeSetIndex(LongBounds<T> longBounds) {
+        this(DEFAULT_STRIPES, Objects.requireNonNull(longBounds));
+    }
+
+    private RangeSetIndex(int stripes, LongBounds<T> longBounds) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive, \nstripes: " + stripes);
+        }
+        this.longBounds = longBounds;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * A batched change of the {@link RangeSet} of key.
+     */
+    public record Update<K, T>(K key, RangeSet<T> ranges, boolean isRemoval) {
+
+        public Update {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(ranges);
+        }
+
+        public static <K, T> Update<K, T> add(K key, RangeSet<T> ranges) {
+            return new Update<>(key, ranges, false);
+        }
+
+        public static <K, T> Update<K, T> remove(K key, RangeSet<T> ranges) {
+            return new Update<>(key, ranges, true);
+        }
+    }
+
+    /**
+     * Maps values to longs and back, preserving their order (e.g. <code>LocalDate::toEpochDay</code> and <code>LocalDate::ofEpochDay</code>),
+     * createRange being the one factory of the ranges read from the index.
+     */
+    public record LongBounds<T>(ToLongFunction<T> toLong, LongFunction<T> fromLong, RangeFactory.CreateRange<T> createRange) {
+
+        public LongBounds {
+            Objects.requireNonNull(toLong);
+            Objects.requireNonNull(fromLong);
+            Objects.requireNonNull(createRange);
+        }
+    }
+
+    private interface Entry<T> {
+
+        RangeSet<T> rangeSet();
+
+        boolean contains(Range<T> range);
+
+        boolean intersects(Range<T> range);
+    }
+
+    private record RangesEntry<T>(IndexedRangeSet<T> rangeSet) implements Entry<T> {
+
+        @Override
+        public boolean contains(Range<T> range) {
+            int index = rangeSet.indexOf(range.min());
+            return index >= 0 && rangeSet.range(index).contains(range);
+        }
+
+        @Override
+        public boolean intersects(Range<T> range) {
+            if (rangeSet.range(0).isAfter(range) || rangeSet.range(rangeSet.rangeCount() - 1).isBefore(range)) {
+                return false;
+            }
+            int index = rangeSet.indexOf(range.min());
+            if (index >= 0) {
+                return true;
+            }
+            int insertionPoint = -index - 1;
+            return insertionPoint < rangeSet.rangeCount() && !rangeSet.range(insertionPoint).isAfter(range);
+        }
+    }
+
+    /**
+     * Holds the bounds of the ranges as longs, <code>min0, max0, min1, max1, ...</code>.
+     */
+    private record LongEntry<T>(long[] bounds, LongBounds<T> longBounds) implements Entry<T> {
+
+        static <T> LongEntry<T> of(RangeSet<T> rangeSet, LongBounds<T> longBounds) {
+            List<Range<T>> ranges = rangeSet.getRanges();
+            long[] bounds = new long[ranges.size() * 2];
+            for (int i = 0; i < ranges.size(); i++) {
+                bounds[2 * i] = longBounds.toLong().applyAsLong(ranges.get(i).min());
+                bounds[2 * i + 1] = longBounds.toLong().applyAsLong(ranges.get(i).max());
+            }
+            return new LongEntry<>(bounds, longBounds);
+        }
+
+        @Override
+        public RangeSet<T> rangeSet() {
+            return () -> IntStream.range(0, bounds.length / 2).mapToObj(i -> longBounds.createRange().between(
+                longBounds.fromLong().apply(bounds[2 * i]),
+                longBounds.fromLong().apply(bounds[2 * i + 1])));
+        }
+
+        @Override
+        public boolean contains(Range<T> range) {
+            long min = longBounds.toLong().applyAsLong(range.min());
+            long max = longBounds.toLong().applyAsLong(range.max());
+            int index = lastStartingAtOrBefore(min);
+            return index >= 0 && bounds[2 * index + 1] >= max;
+        }
+
+        @Override
+        public boolean intersects(Range<T> range) {
+            long min = longBounds.toLong().applyAsLong(range.min());
+            long max = longBounds.toLong().applyAsLong(range.max());
+            if (max < bounds[0] || min > bounds[bounds.length - 1]) {
+                return false;
+            }
+            int index = lastStartingAtOrBefore(max);
+            return index >= 0 && bounds[2 * index + 1] >= min;
+        }
+
+        /**
+         * Returns the index of the last range whose min is not after value, or -1.
+         */
+        private int lastStartingAtOrBefore(long value) {
+            int low = 0;
+            int high = bounds.length / 2 - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (bounds[2 * mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low - 1;
+        }
+    }
+
+    /**
+     * Returns the {@link RangeSet} of key, which is empty if key is unknown.
+     */
+    public RangeSet<T> get(K key) {
+        Entry<T> entry = entries.get(key);
+        return entry == null ? RangeSet.empty() : entry.rangeSet();
+    }
+
+    /**
+     * Replaces the {@link RangeSet} of key, an empty set removes key.
+     */
+    public void put(K key, RangeSet<T> rangeSet) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            store(key, entryOf(rangeSet));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds ranges to the {@link RangeSet} of key.
+     */
+    public void add(K key, RangeSet<T> ranges) {
+        apply(List.of(Update.add(key, ranges)));
+    }
+
+    /**
+     * Removes ranges from the {@link RangeSet} of key.
+     */
+    public void remove(K key, RangeSet<T> ranges) {
+        apply(List.of(Update.remove(key, ranges)));
+    }
+
+    /**
+     * Applies all updates, grouped by key and in the given order per key.<br>
+     * Subsequent additions (or removals) of the same key are combined, so each key is normalized once per group.
+     */
+    public void apply(Collection<Update<K, T>> updates) {
+        Map<K, List<Update<K, T>>> updatesByKey = new LinkedHashMap<>();
+        updates.forEach(update -> updatesByKey.computeIfAbsent(update.key(), k -> new ArrayList<>()).add(update));
+        updatesByKey.forEach(this::applyToKey);
+    }
+
+    /**
+     * Returns the number of keys having a non empty {@link RangeSet}.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public Stream<K> keys() {
+        return entries.keySet().stream();
+    }
+
+    /**
+     * Returns the keys whose {@link RangeSet} contains the whole range.
+     */
+    public Stream<K> keysContaining(Range<T> range) {
+        return entries.entrySet().stream()
+            .filter(e -> e.getValue().contains(range))
+            .map(Map.Entry::getKey);
+    }
+
+    /**
+     * Returns the keys whose {@link RangeSet} intersects with range.
+     */
+    public Stream<K> keysIntersecting(Range<T> range) {
+        return entries.entrySet().stream()
+            .filter(e -> e.getValue().intersects(range))
+            .map(Map.Entry::getKey);
+    }
+
+    /**
+     * Returns the keys whose {@link RangeSet} does not intersect with range, unknown keys not being included.
+     */
+    public Stream<K> keysDistinctFrom(Range<T> range) {
+        return entries.entrySet().stream()
+            .filter(e -> !e.getValue().intersects(range))
+            .map(Map.Entry::getKey);
+    }
+
+    private void applyToKey(K key, List<Update<K, T>> updates) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Entry<T> entry = entries.get(key);
+            RangeSet<T> rangeSet = entry == null ? RangeSet.empty() : entry.rangeSet();
+            int i = 0;
+            while (i < updates.size()) {
+                boolean isRemoval = updates.get(i).isRemoval();
+                List<Range<T>> ranges = new ArrayList<>();
+                while (i < updates.size() && updates.get(i).isRemoval() == isRemoval) {
+                    ranges.addAll(updates.get(i).ranges().getRanges());
+                    i++;
+                }
+                if (isRemoval) {
+                    rangeSet = rangeSet.remove(RangeSet.of(ranges));
+                } else {
+                    ranges.addAll(rangeSet.getRanges());
+                    rangeSet = RangeSet.of(ranges);
+                }
+            }
+            store(key, entryOf(rangeSet));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the entry storing rangeSet, or null if it is empty.
+     */
+    private Entry<T> entryOf(RangeSet<T> rangeSet) {
+        if (longBounds != null) {
+            LongEntry<T> entry = LongEntry.of(rangeSet, longBounds);
+            return entry.bounds().length == 0 ? null : entry;
+        }
+        IndexedRangeSet<T> indexed = IndexedRangeSet.of(rangeSet);
+        return indexed.isEmpty() ? null : new RangesEntry<>(indexed);
+    }
+
+    private void store(K key, Entry<T> entry) {
+        if (entry == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, entry);
+        }
+    }
+
+    private ReentrantLock lockFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return locks[Math.floorMod(hash, locks.length)];
+    }
+}
@@ -0,0 +1,109 @@
+package org.repozoo.commons.range;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link RangeMetrics} keeping counters and log2 histograms per operation in memory.<br>
+ * Histogram bucket i counts measurements within <code>[2^i, 2^(i+1))</code>, bucket 0 also counts 0.
+ */
+public final class RangeStatistics implements RangeMetrics {
+
+    private final Map<Operation, Statistics> statistics = new EnumMap<>(Operation.class);
+
+    public RangeStatistics() {
+        for (Operation operation : Operation.values()) {
+            statistics.put(operation, new Statistics());
+        }
+    }
+
+    @Override
+    public void record(Operation operation, long inputRanges, long outputRanges, long durationNanos) {
+        Statistics recorded = statistics.get(operation);
+        recorded.count.increment();
+        recorded.inputRanges.add(inputRanges);
+        recorded.outputRanges.add(outputRanges);
+        recorded.durationNanos.add(durationNanos);
+        recorded.durationHistogram.incrementAndGet(bucket(durationNanos));
+        recorded.outputRangesHistogram.incrementAndGet(bucket(outputRanges));
+    }
+
+    @Override
+    public void recordQuery(Operation operation, long values, long hits, long durationNanos) {
+        Statistics recorded = statistics.get(operation);
+        recorded.count.increment();
+        recorded.values.add(values);
+        recorded.hits.add(hits);
+        recorded.durationNanos.add(durationNanos);
+        recorded.durationHistogram.incrementAndGet(bucket(durationNanos));
+    }
+
+    public long count(Operation operation) {
+        return statistics.get(operation).count.sum();
+    }
+
+    public long inputRanges(Operation operation) {
+        return statistics.get(operation).inputRanges.sum();
+    }
+
+    public long outputRanges(Operation operation) {
+        return statistics.get(operation).outputRanges.sum();
+    }
+
+    /**
+     * Returns the number of values queried by bulk queries.
+     */
+    public long values(Operation operation) {
+        return statistics.get(operation).values.sum();
+    }
+
+    /**
+     * Returns the number of queried values found inside the set by bulk queries.
+     */
+    public long hits(Operation operation) {
+        return statistics.get(operation).hits.sum();
+    }
+
+    public long durationNanos(Operation operation) {
+        return statistics.get(operation).durationNanos.sum();
+    }
+
+    /**
+     * Returns the log2 histogram of the durations in nanoseconds.
+     */
+    public long[] durationHistogram(Operation operation) {
+        return toArray(statistics.get(operation).durationHistogram);
+    }
+
+    /**
+     * Returns the log2 histogram of the output range counts.
+     */
+    public long[] outputRangesHistogram(Operation operation) {
+        return toArray(statistics.get(operation).outputRangesHistogram);
+    }
+
+    private static int bucket(long value) {
+        return value <= 1 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long[] toArray(AtomicLongArray histogram) {
+        long[] result = new long[histogram.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = histogram.get(i);
+        }
+        return result;
+    }
+
+    private static final class Statistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder inputRanges = new LongAdder();
+        private final LongAdder outputRanges = new LongAdder();
+        private final LongAdder values = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder durationNanos = new LongAdder();
+        private final AtomicLongArray durationHistogram = new AtomicLongArray(Long.SIZE);
+        private final AtomicLongArray outputRangesHistogram = new AtomicLongArray(Long.SIZE);
+    }
+}
@@ -0,0 +1,166 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Sweeps over the boundaries of several normalized {@link RangeSet}s at once.<br>
+ * Each returned {@link Segment} is a maximal range in which the same operands are covering,
+ * those operands being flagged in {@link Segment#mask()} (bit i for the i-th operand).
+ * Segments covered by no operand are skipped.<br>
+ * One sweep costs <code>O(total number of ranges * number of operands)</code> and stops as early as its consumer does.
+ */
+final class RangeSweep<T> implements Iterator<RangeSweep.Segment<T>> {
+
+    static final int MAX_OPERANDS = Integer.SIZE - 1;
+
+    record Segment<T>(Range<T> range, int mask) {}
+
+    private final List<Iterator<Range<T>>> operands;
+    private final List<Range<T>> heads;
+    private int mask;
+    private Value<T> position;
+    private boolean isPositionAfterValue;
+    private Segment<T> next;
+
+    RangeSweep(List<? extends RangeSet<T>> rangeSets) {
+        if (rangeSets.size() > MAX_OPERANDS) {
+            throw new IllegalArgumentException("too many operands, \nmax: " + MAX_OPERANDS + "\nactual: " + rangeSets.size());
+        }
+        this.operands = new ArrayList<>();
+        this.heads = new ArrayList<>();
+        for (RangeSet<T> rangeSet : rangeSets) {
+            Iterator<Range<T>> iterator = rangeSet.streamRanges().iterator();
+            operands.add(iterator);
+            heads.add(iterator.hasNext() ? iterator.next() : null);
+        }
+    }
+
+    /**
+     * Returns the ranges covered by those operand combinations accepted by isCovered, normalized.<br>
+     * isCovered must not accept 0 (no operand covering), the result would be unbounded.
+     */
+    static <T> List<Range<T>> collect(List<? extends RangeSet<T>> rangeSets, IntPredicate isCovered) {
+        requireBounded(isCovered);
+        Collector<T> collector = new Collector<>();
+        RangeSweep<T> sweep = new RangeSweep<>(rangeSets);
+        while (sweep.hasNext()) {
+            Segment<T> segment = sweep.next();
+            if (isCovered.test(segment.mask())) {
+                collector.add(segment.range());
+            }
+        }
+        return collector.ranges();
+    }
+
+    static void requireBounded(IntPredicate isCovered) {
+        if (isCovered.test(0)) {
+            throw new IllegalStateException("result is unbounded, it covers values outside all operands");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Segment<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Segment<T> segment = next;
+        next = null;
+        return segment;
+    }
+
+    private Segment<T> advance() {
+        while (true) {
+            int event = nextEvent();
+            if (event < 0) {
+                return null;
+            }
+            Range<T> eventRange = heads.get(event);
+            boolean isAfterValue = (mask & (1 << event)) != 0;
+            Value<T> eventValue = isAfterValue ? eventRange.maxValue() : eventRange.minValue();
+            Segment<T> segment = mask == 0 ? null : segment(eventValue, isAfterValue);
+            for (int i = 0; i < heads.size(); i++) {
+                Range<T> head = heads.get(i);
+                if (head != null) {
+                    boolean isInside = (mask & (1 << i)) != 0;
+                    Value<T> value = isInside ? head.maxValue() : head.minValue();
+                    if (isInside == isAfterValue && value.isEqualTo(eventValue)) {
+                        mask ^= 1 << i;
+                        if (isInside) {
+                            heads.set(i, operands.get(i).hasNext() ? operands.get(i).next() : null);
+                        }
+                    }
+                }
+            }
+            position = eventValue;
+            isPositionAfterValue = isAfterValue;
+            if (segment != null) {
+                return segment;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the operand having the next event, an event being the start (before min) or end (after max) of a range.
+     */
+    private int nextEvent() {
+        int event = -1;
+        Value<T> eventValue = null;
+        boolean isEventAfterValue = false;
+        for (int i = 0; i < heads.size(); i++) {
+            Range<T> head = heads.get(i);
+            if (head != null) {
+                boolean isAfterValue = (mask & (1 << i)) != 0;
+                Value<T> value = isAfterValue ? head.maxValue() : head.minValue();
+                int comparison = eventValue == null ? -1 : value.compareTo(eventValue);
+                if (comparison < 0 || (comparison == 0 && !isAfterValue && isEventAfterValue)) {
+                    event = i;
+                    eventValue = value;
+                    isEventAfterValue = isAfterValue;
+                }
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Returns the segment between the current position and the event, or null if it contains no value.
+     */
+    private Segment<T> segment(Value<T> eventValue, boolean isEventAfterValue) {
+        Value<T> min = isPositionAfterValue ? position.next() : position;
+        Value<T> max = isEventAfterValue ? eventValue : eventValue.previous();
+        return min.isAfter(max) ? null : new Segment<>(Range.between(min, max), mask);
+    }
+
+    /**
+     * Collects ranges in ascending order, merging adjacent ones.
+     */
+    static final class Collector<T> {
+
+        private final List<Range<T>> ranges = new ArrayList<>();
+
+        void add(Range<T> range) {
+            int last = ranges.size() - 1;
+            if (last >= 0 && ranges.get(last).maxValue().next().isEqualTo(range.minValue())) {
+                ranges.set(last, Range.between(ranges.get(last).minValue(), range.maxValue()));
+            } else {
+                ranges.add(range);
+            }
+        }
+
+        List<Range<T>> ranges() {
+            return ranges;
+        }
+    }
+}
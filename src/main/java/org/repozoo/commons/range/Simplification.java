@@ -0,0 +1,101 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The result of a lossy simplification of a {@link RangeSet}, see {@link RangeSet#coalesce(long)},
+ * {@link RangeSet#dropShorterThan(long)} and {@link RangeSet#reduceTo(int)}.<br>
+ * valuesAdded counts the values of closed gaps, valuesRemoved the values of dropped ranges.
+ * Gap lengths are computed by the factory's distance function, {@link RangeSet#reduceTo(int)} requires one,
+ * {@link RangeSet#coalesce(long)} without one counts at most maxGap + 1 steps per gap.
+ */
+public record Simplification<T>(RangeSet<T> rangeSet, long valuesAdded, long valuesRemoved) {
+
+    static <T> Simplification<T> coalesce(RangeSet<T> rangeSet, long maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap must not be negative, \nmaxGap: " + maxGap);
+        }
+        List<Range<T>> ranges = rangeSet.getRanges();
+        boolean[] close = new boolean[Math.max(ranges.size() - 1, 0)];
+        long[] gaps = new long[close.length];
+        long limit = maxGap == Long.MAX_VALUE ? maxGap : maxGap + 1;
+        for (int i = 0; i < close.length; i++) {
+            gaps[i] = ranges.get(i).maxValue().distanceTo(ranges.get(i + 1).minValue(), limit) - 1;
+            close[i] = gaps[i] <= maxGap;
+        }
+        return closeGaps(ranges, close, gaps);
+    }
+
+    static <T> Simplification<T> reduceTo(RangeSet<T> rangeSet, int maxRanges) {
+        if (maxRanges < 1) {
+            throw new IllegalArgumentException("maxRanges must be positive, \nmaxRanges: " + maxRanges);
+        }
+        List<Range<T>> ranges = rangeSet.getRanges();
+        boolean[] close = new boolean[Math.max(ranges.size() - 1, 0)];
+        long[] gaps = new long[close.length];
+        int toClose = ranges.size() - maxRanges;
+        if (toClose > 0) {
+            if (!ranges.get(0).minValue().hasDistance()) {
+                throw new IllegalArgumentException("reduceTo requires a range factory having a distance function, \nrange: " + ranges.get(0));
+            }
+            for (int i = 0; i < close.length; i++) {
+                gaps[i] = gap(ranges, i);
+            }
+            // close all gaps smaller than the toClose-th smallest one, and the leftmost gaps equal to it
+            long[] sorted = gaps.clone();
+            Arrays.sort(sorted);
+            long threshold = sorted[toClose - 1];
+            int equalToClose = toClose - (int) Arrays.stream(sorted, 0, toClose).filter(gap -> gap < threshold).count();
+            for (int i = 0; i < close.length; i++) {
+                if (gaps[i] < threshold) {
+                    close[i] = true;
+                } else if (gaps[i] == threshold && equalToClose > 0) {
+                    close[i] = true;
+                    equalToClose--;
+                }
+            }
+        }
+        return closeGaps(ranges, close, gaps);
+    }
+
+    static <T> Simplification<T> dropShorterThan(RangeSet<T> rangeSet, long minValues) {
+        List<Range<T>> kept = new ArrayList<>();
+        long removed = 0;
+        for (Range<T> range : rangeSet.getRanges()) {
+            long count = range.countValues();
+            if (count < minValues) {
+                removed += count;
+            } else {
+                kept.add(range);
+            }
+        }
+        return new Simplification<>(new IndexedRangeSet<>(kept), 0, removed);
+    }
+
+    /**
+     * Returns the number of values missing between the ranges at index and index + 1.
+     */
+    private static <T> long gap(List<Range<T>> ranges, int index) {
+        return ranges.get(index).maxValue().distanceTo(ranges.get(index + 1).minValue()) - 1;
+    }
+
+    /**
+     * Merges the ranges at i and i + 1 for each i having close[i] set, gaps[i] values being added.
+     */
+    private static <T> Simplification<T> closeGaps(List<Range<T>> ranges, boolean[] close, long[] gaps) {
+        List<Range<T>> merged = new ArrayList<>();
+        long added = 0;
+        int start = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i < close.length && close[i]) {
+                added += gaps[i];
+            } else {
+                merged.add(start == i ? ranges.get(i) : Range.between(ranges.get(start).minValue(), ranges.get(i).maxValue()));
+                start = i + 1;
+            }
+        }
+        return new Simplification<>(new IndexedRangeSet<>(merged), added, 0);
+    }
+}
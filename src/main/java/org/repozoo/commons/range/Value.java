@@ -30,6 +30,65 @@ class Value<X> implements Comparable<Value<X>> {
         return with(iterator.previous(value));
     }
 
+    /**
+     * Returns the number of next steps from this to other (negative if other lies before this).<br>
+     * Without a distance function (see {@link RangeFactory.CreateRangeBuilder#withDistance}) the steps are counted one by one.
+     */
+    public long distanceTo(Value<X> other) {
+        if (iterator.hasDistance()) {
+            return iterator.distance(value, other.value());
+        }
+        if (this.isAfter(other)) {
+            return -other.distanceTo(this);
+        }
+        long steps = 0;
+        for (Value<X> current = this; current.isBefore(other); current = current.next()) {
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Like {@link #distanceTo(Value)} for other not before this, but counting at most limit + 1 steps one by one:
+     * returns limit + 1 if other lies further away than limit.
+     */
+    public long distanceTo(Value<X> other, long limit) {
+        if (iterator.hasDistance()) {
+            return iterator.distance(value, other.value());
+        }
+        long steps = 0;
+        for (Value<X> current = this; current.isBefore(other) && steps <= limit; current = current.next()) {
+            steps++;
+        }
+        return steps;
+    }
+
+    public boolean hasDistance() {
+        return iterator.hasDistance();
+    }
+
+    public boolean hasOffset() {
+        return iterator.hasOffset();
+    }
+
+    /**
+     * Returns the value steps next steps after this (previous steps if steps is negative).<br>
+     * Without an offset function (see {@link RangeFactory.CreateRangeBuilder#withOffset}) the steps are taken one by one.
+     */
+    public Value<X> plus(long steps) {
+        if (iterator.hasOffset()) {
+            return with(iterator.plus(value, steps));
+        }
+        Value<X> current = this;
+        for (long i = 0; i < steps; i++) {
+            current = current.next();
+        }
+        for (long i = 0; i > steps; i--) {
+            current = current.previous();
+        }
+        return current;
+    }
+
     public Value<X> with(X value) {
         return new Value<>(value, iterator, comparator);
     }
@@ -44,8 +103,7 @@ class Value<X> implements Comparable<Value<X>> {
     }
 
     public boolean isAfterOrEqual(X x) {
-        Value<X> other = with(x);
-        return this.isAfterOrEqual(other);
+        return compareToValue(x) >= 0;
     }
 
     public boolean isBefore(Value<X> other) {
@@ -62,7 +120,20 @@ class Value<X> implements Comparable<Value<X>> {
     }
 
     public boolean isBeforeOrEqual(X x) {
-        Value<X> other = this.with(x);
-        return this.isBeforeOrEqual(other);
+        return compareToValue(x) <= 0;
+    }
+
+    /**
+     * Returns false if x is excluded from ranges of this type (see {@link RangeFactory.CreateRangeBuilder#withMembership}).
+     */
+    public boolean admits(X x) {
+        return iterator.isMember(x);
+    }
+
+    /**
+     * Compares this value with a raw x, without wrapping x into a new {@link Value}.
+     */
+    public int compareToValue(X x) {
+        return comparator.compare(value, x);
     }
 }
@@ -2,6 +2,7 @@ package org.repozoo.commons.range;
 
 import lombok.AllArgsConstructor;
 
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
 @AllArgsConstructor
@@ -9,6 +10,9 @@ class ValueIterator<Y> {
 
     private final UnaryOperator<Y> next;
     private final UnaryOperator<Y> previous;
+    private final RangeFactory.Distance<Y> distance;
+    private final RangeFactory.Offset<Y> offset;
+    private final Predicate<Y> membership;
 
     public Y next(Y value) {
         return next.apply(value);
@@ -17,4 +21,24 @@ class ValueIterator<Y> {
     public Y previous(Y value) {
         return previous.apply(value);
     }
+
+    public boolean hasDistance() {
+        return distance != null;
+    }
+
+    public long distance(Y from, Y to) {
+        return distance.between(from, to);
+    }
+
+    public boolean hasOffset() {
+        return offset != null;
+    }
+
+    public Y plus(Y value, long steps) {
+        return offset.plus(value, steps);
+    }
+
+    public boolean isMember(Y value) {
+        return membership == null || membership.test(value);
+    }
 }
@@ -0,0 +1,222 @@
+package org.repozoo.commons.range;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A mutable {@link RangeSet} over a sliding window, e.g. the event time windows seen by a stream processor.<br>
+ * Ranges are kept in a ring buffer ordered from oldest to newest:
+ * <ul>
+ *     <li>{@link #append(Range)} merges a range into the newest ranges, scanning backwards from the head,
+ *     so appending in (nearly) ascending order costs O(1).</li>
+ *     <li>{@link #advanceWatermark(Object)} drops all values before the watermark from the tail, in amortized O(1) per dropped range.
+ *     The buffer shrinks as ranges expire, so memory stays bounded by the ranges within the window.</li>
+ * </ul>
+ * <pre>
+ * window.append(IntRange.between(1, 5));
+ * window.append(IntRange.between(8, 9));
+ * window.advanceWatermark(4); // [4..5], [8..9]
+ * </pre>
+ * Not thread safe, and the set must not be modified while its ranges are streamed, see {@link #snapshot()}.
+ */
+public final class WindowedRangeSet<T> implements RangeSet<T> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private Range<T>[] ranges;
+    private int tail;
+    private int size;
+    private T watermark;
+    private boolean hasWatermark;
+    private Value<T> anyValue;
+
+    private WindowedRangeSet() {
+        this.ranges = newArray(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates an empty {@link WindowedRangeSet} without watermark.
+     */
+    public static <T> WindowedRangeSet<T> create() {
+        return new WindowedRangeSet<>();
+    }
+
+    /**
+     * Adds range, merging it with overlapping or adjacent ranges.<br>
+     * Values before the watermark are ignored.
+     */
+    public void append(Range<T> range) {
+        Value<T> min = range.minValue();
+        Value<T> max = range.maxValue();
+        anyValue = min;
+        if (hasWatermark) {
+            if (max.compareToValue(watermark) < 0) {
+                return;
+            }
+            if (min.compareToValue(watermark) < 0) {
+                min = min.with(watermark);
+            }
+        }
+        int after = size;
+        while (after > 0 && max.next().isBefore(get(after - 1).minValue())) {
+            after--;
+        }
+        int first = after;
+        while (first > 0 && !get(first - 1).maxValue().next().isBefore(min)) {
+            first--;
+            Range<T> touching = get(first);
+            min = touching.minValue().isBefore(min) ? touching.minValue() : min;
+            max = touching.maxValue().isAfter(max) ? touching.maxValue() : max;
+        }
+        Range<T> merged = Range.between(min, max);
+        if (first == after) {
+            insert(first, merged);
+        } else {
+            set(first, merged);
+            delete(first + 1, after);
+        }
+    }
+
+    /**
+     * Drops all values before watermark.<br>
+     * A watermark before the current one is ignored, watermarks only advance
+     * (values are compared as soon as the first range is appended, before that the last watermark wins).
+     */
+    public void advanceWatermark(T watermark) {
+        if (hasWatermark && anyValue != null && anyValue.with(this.watermark).compareToValue(watermark) >= 0) {
+            return;
+        }
+        while (size > 0 && get(0).maxValue().compareToValue(watermark) < 0) {
+            ranges[tail] = null;
+            tail = index(1);
+            size--;
+        }
+        if (size > 0 && get(0).minValue().compareToValue(watermark) < 0) {
+            set(0, Range.between(get(0).minValue().with(watermark), get(0).maxValue()));
+        }
+        this.watermark = watermark;
+        this.hasWatermark = true;
+        shrink();
+    }
+
+    /**
+     * Returns the current watermark, if any.
+     */
+    public Optional<T> watermark() {
+        return hasWatermark ? Optional.of(watermark) : Optional.empty();
+    }
+
+    public int rangeCount() {
+        return size;
+    }
+
+    /**
+     * Returns an immutable copy of the current ranges.
+     */
+    public RangeSet<T> snapshot() {
+        List<Range<T>> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            copy.add(get(i));
+        }
+        return new IndexedRangeSet<>(copy);
+    }
+
+    @Override
+    public boolean contains(T value) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Range<T> range = get(middle);
+            int location = range.locate(value);
+            if (location == 0) {
+                return range.admits(value);
+            }
+            if (location < 0) {
+                high = middle - 1;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Stream<Range<T>> streamRanges() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    @Override
+    public String toString() {
+        return "WindowedRangeSet" + getRanges();
+    }
+
+    private Range<T> get(int i) {
+        return ranges[index(i)];
+    }
+
+    private void set(int i, Range<T> range) {
+        ranges[index(i)] = range;
+    }
+
+    private int index(int i) {
+        return (tail + i) & (ranges.length - 1);
+    }
+
+    private void insert(int position, Range<T> range) {
+        if (size == ranges.length) {
+            resize(ranges.length * 2);
+        }
+        for (int i = size; i > position; i--) {
+            set(i, get(i - 1));
+        }
+        set(position, range);
+        size++;
+    }
+
+    /**
+     * Deletes the ranges from (inclusive) to (exclusive).
+     */
+    private void delete(int from, int to) {
+        int count = to - from;
+        for (int i = from; i < size - count; i++) {
+            set(i, get(i + count));
+        }
+        for (int i = size - count; i < size; i++) {
+            set(i, null);
+        }
+        size -= count;
+    }
+
+    private void shrink() {
+        int capacity = ranges.length;
+        while (capacity > MIN_CAPACITY && size < capacity / 4) {
+            capacity /= 2;
+        }
+        if (capacity < ranges.length) {
+            resize(capacity);
+        }
+    }
+
+    private void resize(int capacity) {
+        Range<T>[] resized = newArray(capacity);
+        for (int i = 0; i < size; i++) {
+            resized[i] = get(i);
+        }
+        ranges = resized;
+        tail = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Range<T>[] newArray(int capacity) {
+        return (Range<T>[]) new Range<?>[capacity];
+    }
+}
@@ -0,0 +1,177 @@
+package org.repozoo.commons.range.factories;
+
+import org.repozoo.commons.range.LongRangeSet;
+import org.repozoo.commons.range.Range;
+import org.repozoo.commons.range.RangeFactory;
+import org.repozoo.commons.range.RangeSet;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Creates {@link LocalDate} ranges of working days, stepping over weekends and holidays.<br>
+ * Working days are counted in closed form: the weekdays by calendar arithmetic, the holidays by a prefix index
+ * over the holiday ranges. So {@link #workingDaysBetween(LocalDate, LocalDate)} takes O(log h) and
+ * {@link #plusWorkingDays(LocalDate, long)} O(log h * log n) for h holiday ranges, independent of the number of days spanned.
+ * <pre>
+ * BusinessCalendar calendar = BusinessCalendar.of(holidays);
+ * calendar.plusWorkingDays(LocalDate.of(2024, 12, 20), 3); // 2024-12-27, with 25th and 26th being holidays
+ * calendar.between(a, b).countValues(); // working days within [a, b]
+ * </pre>
+ */
+public final class BusinessCalendar {
+
+    private static final int DAYS_PER_WEEK = 7;
+    // epoch day 0 (1970-01-01) is a Thursday
+    private static final DayOfWeek EPOCH_DAY_OF_WEEK = DayOfWeek.THURSDAY;
+
+    private final Set<DayOfWeek> weekend;
+    private final LongRangeSet holidays;
+    private final int workingDaysPerWeek;
+    private final int[] workingDaysBeforeInWeek;
+    private final long[] holidaysBefore;
+    private final RangeFactory.CreateRange<LocalDate> createRange;
+
+    private BusinessCalendar(Set<DayOfWeek> weekend, RangeSet<LocalDate> holidays) {
+        if (weekend.size() >= DAYS_PER_WEEK) {
+            throw new IllegalArgumentException("a week needs at least one working day, \nweekend: " + weekend);
+        }
+        this.weekend = weekend.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(weekend);
+        this.holidays = LongRangeSet.of(holidays, LocalDate::toEpochDay);
+        this.workingDaysPerWeek = DAYS_PER_WEEK - weekend.size();
+        this.workingDaysBeforeInWeek = new int[DAYS_PER_WEEK + 1];
+        for (int i = 0; i < DAYS_PER_WEEK; i++) {
+            boolean isWorking = !this.weekend.contains(EPOCH_DAY_OF_WEEK.plus(i));
+            workingDaysBeforeInWeek[i + 1] = workingDaysBeforeInWeek[i] + (isWorking ? 1 : 0);
+        }
+        this.holidaysBefore = new long[this.holidays.rangeCount() + 1];
+        for (int i = 0; i < this.holidays.rangeCount(); i++) {
+            holidaysBefore[i + 1] = holidaysBefore[i] + weekdaysBefore(this.holidays.max(i) + 1) - weekdaysBefore(this.holidays.min(i));
+        }
+        this.createRange = RangeFactory.forType(LocalDate.class)
+                .withComparator(LocalDate::compareTo)
+                .withIterator(day -> plusWorkingDays(day, 1), day -> plusWorkingDays(day, -1))
+                .withDistance(this::workingDaysBetween)
+                .withOffset(this::plusWorkingDays)
+                .withMembership(this::isWorkingDay)
+                .build();
+    }
+
+    /**
+     * Creates a calendar with saturday and sunday as weekend.
+     */
+    public static BusinessCalendar of(RangeSet<LocalDate> holidays) {
+        return of(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), holidays);
+    }
+
+    public static BusinessCalendar of(Set<DayOfWeek> weekend, RangeSet<LocalDate> holidays) {
+        return new BusinessCalendar(weekend, holidays);
+    }
+
+    /**
+     * Returns the range of working days within [min, max].<br>
+     * min and max are moved inwards to the nearest working day.
+     *
+     * @throws IllegalArgumentException if there is no working day within [min, max]
+     */
+    public Range<LocalDate> between(LocalDate min, LocalDate max) {
+        LocalDate first = isWorkingDay(min) ? min : plusWorkingDays(min, 1);
+        LocalDate last = isWorkingDay(max) ? max : plusWorkingDays(max, -1);
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("no working day between min and max, \nmin: " + min + "\nmax: " + max);
+        }
+        return createRange.between(first, last);
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return !weekend.contains(date.getDayOfWeek()) && !holidays.contains(date.toEpochDay());
+    }
+
+    /**
+     * Returns the number of working days within [from, to), negative if to lies before from (like {@link java.time.temporal.ChronoUnit#between}).
+     */
+    public long workingDaysBetween(LocalDate from, LocalDate to) {
+        return workingDaysBefore(to.toEpochDay()) - workingDaysBefore(from.toEpochDay());
+    }
+
+    /**
+     * Returns the days-th working day after date, or the -days-th working day before date if days is negative.<br>
+     * date itself is returned for 0 days.
+     */
+    public LocalDate plusWorkingDays(LocalDate date, long days) {
+        long epochDay = date.toEpochDay();
+        if (days > 0) {
+            // the smallest day d after date with workingDaysBefore(d + 1) reaching the target is a working day
+            long target = workingDaysBefore(epochDay + 1) + days;
+            long low = epochDay + 1;
+            long high = epochDay + estimatedDays(days);
+            while (workingDaysBefore(high + 1) < target) {
+                low = high + 1;
+                high += high - epochDay;
+            }
+            while (low < high) {
+                long middle = low + (high - low) / 2;
+                if (workingDaysBefore(middle + 1) >= target) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return LocalDate.ofEpochDay(low);
+        }
+        if (days < 0) {
+            // the largest day d before date with workingDaysBefore(d) reaching the target is a working day
+            long target = workingDaysBefore(epochDay) + days;
+            long high = epochDay - 1;
+            long low = epochDay - estimatedDays(-days);
+            while (workingDaysBefore(low) > target) {
+                high = low - 1;
+                low -= epochDay - low;
+            }
+            while (low < high) {
+                long middle = high - (high - low) / 2;
+                if (workingDaysBefore(middle) <= target) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return LocalDate.ofEpochDay(low);
+        }
+        return date;
+    }
+
+    /**
+     * Returns the number of days spanning days working days, ignoring holidays.
+     */
+    private long estimatedDays(long days) {
+        return Math.max(1, days / workingDaysPerWeek * DAYS_PER_WEEK + DAYS_PER_WEEK);
+    }
+
+    /**
+     * Returns the number of working days before epochDay, relative to epoch day 0 (negative for epochDay before 0).
+     */
+    private long workingDaysBefore(long epochDay) {
+        return weekdaysBefore(epochDay) - holidayWeekdaysBefore(epochDay);
+    }
+
+    /**
+     * Returns the number of days not being weekend before epochDay, relative to epoch day 0.
+     */
+    private long weekdaysBefore(long epochDay) {
+        return Math.floorDiv(epochDay, DAYS_PER_WEEK) * workingDaysPerWeek + workingDaysBeforeInWeek[Math.floorMod(epochDay, DAYS_PER_WEEK)];
+    }
+
+    /**
+     * Returns the number of holidays not being weekend before epochDay, relative to all holidays.
+     */
+    private long holidayWeekdaysBefore(long epochDay) {
+        int index = holidays.indexOf(epochDay);
+        if (index >= 0) {
+            return holidaysBefore[index] + weekdaysBefore(epochDay) - weekdaysBefore(holidays.min(index));
+        }
+        return holidaysBefore[-index - 1];
+    }
+}
@@ -0,0 +1,88 @@
+package org.repozoo.commons.range.factories;
+
+import org.repozoo.commons.range.Range;
+import org.repozoo.commons.range.RangeFactory;
+import org.repozoo.commons.range.RangeSet;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.util.function.UnaryOperator;
+
+/**
+ * Creates ranges of a timeline of granularity steps, e.g. nanoseconds or minutes, see {@link InstantRange} and {@link LocalDateTimeRange}.<br>
+ * Bounds must be aligned to the granularity, counted from the epoch, as next and previous add or subtract the granularity.
+ * Next, previous, distance and offset are computed arithmetically, so adjacency tests and set algebra never enumerate values.
+ * As a range may hold billions of values, stream them with an explicit step, see {@link RangeSet#streamValues(long)}.<br>
+ * Distances (e.g. {@link Range#countValues()}) are counted in a long, which holds about 292 years of nanoseconds:
+ * counting the values of a longer nanosecond range throws an {@link ArithmeticException}.
+ */
+public final class GranularTimeline<T extends Temporal & Comparable<? super T>> implements RangeFactory.CreateRange<T> {
+
+    private final T epoch;
+    private final Duration granularity;
+    private final boolean isNanos;
+    private final RangeFactory.CreateRange<T> createRange;
+
+    private GranularTimeline(Class<T> type, T epoch, Duration granularity) {
+        this.epoch = epoch;
+        this.granularity = granularity;
+        this.isNanos = granularity.equals(Duration.ofNanos(1));
+        UnaryOperator<T> next = value -> plus(value, granularity);
+        UnaryOperator<T> previous = value -> plus(value, granularity.negated());
+        this.createRange = RangeFactory.forType(type)
+                .withComparator(T::compareTo)
+                .withIterator(next, previous)
+                .withDistance((from, to) -> isNanos ? ChronoUnit.NANOS.between(from, to) : Duration.between(from, to).dividedBy(granularity))
+                .withOffset((value, steps) -> plus(value, granularity.multipliedBy(steps)))
+                .build();
+    }
+
+    static <T extends Temporal & Comparable<? super T>> GranularTimeline<T> of(Class<T> type, T epoch, Duration granularity) {
+        if (granularity.isNegative() || granularity.isZero()) {
+            throw new IllegalArgumentException("granularity must be positive, \ngranularity: " + granularity);
+        }
+        return new GranularTimeline<>(type, epoch, granularity);
+    }
+
+    public Duration granularity() {
+        return granularity;
+    }
+
+    /**
+     * Returns the range [min, max], both inclusive.
+     */
+    @Override
+    public Range<T> between(T min, T max) {
+        checkAligned("min", min);
+        checkAligned("max", max);
+        return createRange.between(min, max);
+    }
+
+    /**
+     * Returns the range [start, end), end being exclusive.
+     */
+    public Range<T> halfOpen(T start, T end) {
+        if (end.compareTo(start) <= 0) {
+            throw new IllegalArgumentException("end must be after start, \nstart: " + start + "\nend: " + end);
+        }
+        checkAligned("start", start);
+        checkAligned("end", end);
+        return createRange.between(start, plus(end, granularity.negated()));
+    }
+
+    private void checkAligned(String name, T value) {
+        if (isNanos) {
+            return;
+        }
+        Duration sinceEpoch = Duration.between(epoch, value);
+        if (!granularity.multipliedBy(sinceEpoch.dividedBy(granularity)).equals(sinceEpoch)) {
+            throw new IllegalArgumentException(name + " must be aligned to the granularity, \n" + name + ": " + value + "\ngranularity: " + granularity);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Temporal> T plus(T value, Duration duration) {
+        return (T) value.plus(duration);
+    }
+}
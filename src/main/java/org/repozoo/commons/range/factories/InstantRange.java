@@ -0,0 +1,38 @@
+package org.repozoo.commons.range.factories;
+
+import org.repozoo.commons.range.Range;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Creates {@link Instant} ranges, stepping by one nanosecond (the precision of {@link Instant}),
+ * or by a coarser granularity, see {@link #withGranularity(Duration)} and {@link GranularTimeline}.
+ */
+public class InstantRange {
+
+    private InstantRange() {}
+
+    private static final GranularTimeline<Instant> nanos = GranularTimeline.of(Instant.class, Instant.EPOCH, Duration.ofNanos(1));
+
+    /**
+     * Returns the range [min, max], both inclusive.
+     */
+    public static Range<Instant> between(Instant min, Instant max) {
+        return nanos.between(min, max);
+    }
+
+    /**
+     * Returns the range [start, end), end being exclusive.
+     */
+    public static Range<Instant> halfOpen(Instant start, Instant end) {
+        return nanos.halfOpen(start, end);
+    }
+
+    /**
+     * Returns a factory for ranges on a timeline of granularity steps, e.g. milliseconds, counted from {@link Instant#EPOCH}.
+     */
+    public static GranularTimeline<Instant> withGranularity(Duration granularity) {
+        return GranularTimeline.of(Instant.class, Instant.EPOCH, granularity);
+    }
+}
@@ -1,9 +1,15 @@
 package org.repozoo.commons.range.factories;
 
+import org.repozoo.commons.range.LongRangeSet;
 import org.repozoo.commons.range.Range;
 import org.repozoo.commons.range.RangeFactory;
+import org.repozoo.commons.range.RangeSet;
+import org.repozoo.commons.range.RangeSetFormat;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
 public class IntRange {
@@ -11,6 +17,15 @@ public class IntRange {
     private IntRange() {}
 
     private static final RangeFactory.CreateRange<Integer> createRange = createIntRange();
+    private static final RangeSetFormat<Integer> textFormat = RangeSetFormat.of(createRange,
+            (text, start, end) -> Integer.parseInt(text, start, end, 10),
+            (value, out) -> {
+                if (out instanceof StringBuilder builder) {
+                    builder.append(value.intValue());
+                } else {
+                    out.append(value.toString());
+                }
+            });
 
     public static Range<Integer> between(Integer min, Integer max) {
         return createRange.between(min, max);
@@ -20,12 +35,67 @@ public class IntRange {
         return createRange.between(i, i);
     }
 
+    /**
+     * Returns a {@link BitSet} having bit i set if values[i] lies inside rangeSet, without boxing values.<br>
+     * For repeated calls against the same set, create a {@link LongRangeSet} once instead.
+     */
+    public static BitSet containsAll(RangeSet<Integer> rangeSet, int[] values) {
+        return LongRangeSet.of(rangeSet, Integer::longValue).containsAll(values);
+    }
+
+    /**
+     * Returns for each of values the index of the range of rangeSet containing it, or -1 if there is none.
+     */
+    public static int[] bucketize(RangeSet<Integer> rangeSet, int[] values) {
+        return LongRangeSet.of(rangeSet, Integer::longValue).bucketize(values);
+    }
+
+    /**
+     * Passes all values of rangeSet in ascending order to chunkConsumer, in arrays of size values (the last one may be smaller), without boxing.
+     */
+    public static void forEachIntChunk(RangeSet<Integer> rangeSet, int size, Consumer<int[]> chunkConsumer) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive, \nsize: " + size);
+        }
+        int[] chunk = new int[size];
+        int filled = 0;
+        for (Range<Integer> range : rangeSet.getRanges()) {
+            long value = range.min();
+            long max = range.max();
+            while (value <= max) {
+                int take = (int) Math.min(max - value + 1, size - filled);
+                for (int k = 0; k < take; k++) {
+                    chunk[filled + k] = (int) (value + k);
+                }
+                filled += take;
+                value += take;
+                if (filled == size) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new int[size];
+                    filled = 0;
+                }
+            }
+        }
+        if (filled > 0) {
+            chunkConsumer.accept(Arrays.copyOf(chunk, filled));
+        }
+    }
+
+    /**
+     * Returns the text format of int range sets, e.g. <code>-5..7</code>, see {@link RangeSetFormat}.
+     */
+    public static RangeSetFormat<Integer> textFormat() {
+        return textFormat;
+    }
+
     private static RangeFactory.CreateRange<Integer> createIntRange() {
         UnaryOperator<Integer> next = n -> n + 1;
         UnaryOperator<Integer> previous = n -> n - 1;
         return RangeFactory.forType(Integer.class)
                 .withComparator(Comparator.naturalOrder())
                 .withIterator(next, previous)
+                .withDistance((from, to) -> (long) to - from)
+                .withOffset((value, steps) -> Math.toIntExact(value + steps))
                 .build();
     }
 }
@@ -1,9 +1,16 @@
 package org.repozoo.commons.range.factories;
 
+import org.repozoo.commons.range.LongRangeSet;
 import org.repozoo.commons.range.Range;
 import org.repozoo.commons.range.RangeFactory;
+import org.repozoo.commons.range.RangeSet;
+import org.repozoo.commons.range.RangeSetFormat;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
 public class LocalDateRange {
@@ -11,17 +18,83 @@ public class LocalDateRange {
     private LocalDateRange() {}
 
     private static final RangeFactory.CreateRange<LocalDate> createRange = createRange();
+    private static final RangeSetFormat<LocalDate> textFormat = RangeSetFormat.of(createRange, LocalDateRange::parse, LocalDateRange::print);
 
     public static Range<LocalDate> between(LocalDate min, LocalDate max) {
         return createRange.between(min, max);
     }
 
+    /**
+     * Returns a {@link BitSet} having bit i set if the day epochDays[i] (see {@link LocalDate#toEpochDay()}) lies inside rangeSet.<br>
+     * For repeated calls against the same set, create a {@link LongRangeSet} once instead.
+     */
+    public static BitSet containsAll(RangeSet<LocalDate> rangeSet, long[] epochDays) {
+        return LongRangeSet.of(rangeSet, LocalDate::toEpochDay).containsAll(epochDays);
+    }
+
+    /**
+     * Returns for each of epochDays the index of the range of rangeSet containing that day, or -1 if there is none.
+     */
+    public static int[] bucketize(RangeSet<LocalDate> rangeSet, long[] epochDays) {
+        return LongRangeSet.of(rangeSet, LocalDate::toEpochDay).bucketize(epochDays);
+    }
+
+    /**
+     * Passes all days of rangeSet in ascending order to chunkConsumer as epoch days (see {@link LocalDate#toEpochDay()}),
+     * in arrays of size values (the last one may be smaller), without boxing.
+     */
+    public static void forEachEpochDayChunk(RangeSet<LocalDate> rangeSet, int size, Consumer<long[]> chunkConsumer) {
+        LongRangeSet.of(rangeSet, LocalDate::toEpochDay).forEachLongChunk(size, chunkConsumer);
+    }
+
+    /**
+     * Returns the text format of date range sets, ISO dates as in <code>2024-01-01..2024-03-31</code>, see {@link RangeSetFormat}.
+     */
+    public static RangeSetFormat<LocalDate> textFormat() {
+        return textFormat;
+    }
+
+    /**
+     * Parses an ISO date (<code>[+-]yyyy-MM-dd</code>) digit by digit, without substrings.
+     */
+    private static LocalDate parse(CharSequence text, int start, int end) {
+        int monthStart = end - 5;
+        int yearEnd = end - 6;
+        if (yearEnd - start < 4 || text.charAt(yearEnd) != '-' || text.charAt(monthStart + 2) != '-') {
+            throw new IllegalArgumentException("invalid date, \ntext: " + text.subSequence(start, end));
+        }
+        return LocalDate.of(Integer.parseInt(text, start, yearEnd, 10),
+                Integer.parseInt(text, monthStart, monthStart + 2, 10),
+                Integer.parseInt(text, monthStart + 3, end, 10));
+    }
+
+    private static void print(LocalDate date, Appendable out) throws IOException {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            out.append(date.toString());
+            return;
+        }
+        appendDigits(out, year, 4);
+        out.append('-');
+        appendDigits(out, date.getMonthValue(), 2);
+        out.append('-');
+        appendDigits(out, date.getDayOfMonth(), 2);
+    }
+
+    private static void appendDigits(Appendable out, int value, int digits) throws IOException {
+        for (int divisor = digits == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
     private static RangeFactory.CreateRange<LocalDate> createRange() {
         UnaryOperator<LocalDate> next = n -> n.plusDays(1);
         UnaryOperator<LocalDate> previous = n ->  n.minusDays(1);
         return RangeFactory.forType(LocalDate.class)
                 .withComparator(LocalDate::compareTo)
                 .withIterator(next, previous)
+                .withDistance(ChronoUnit.DAYS::between)
+                .withOffset(LocalDate::plusDays)
                 .build();
     }
 }
@@ -0,0 +1,40 @@
+package org.repozoo.commons.range.factories;
+
+import org.repozoo.commons.range.Range;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Creates {@link LocalDateTime} ranges, stepping by one nanosecond (the precision of {@link LocalDateTime}),
+ * or by a coarser granularity, see {@link #withGranularity(Duration)} and {@link GranularTimeline}.
+ */
+public class LocalDateTimeRange {
+
+    private LocalDateTimeRange() {}
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final GranularTimeline<LocalDateTime> nanos = GranularTimeline.of(LocalDateTime.class, EPOCH, Duration.ofNanos(1));
+
+    /**
+     * Returns the range [min, max], both inclusive.
+     */
+    public static Range<LocalDateTime> between(LocalDateTime min, LocalDateTime max) {
+        return nanos.between(min, max);
+    }
+
+    /**
+     * Returns the range [start, end), end being exclusive.
+     */
+    public static Range<LocalDateTime> halfOpen(LocalDateTime start, LocalDateTime end) {
+        return nanos.halfOpen(start, end);
+    }
+
+    /**
+     * Returns a factory for ranges on a timeline of granularity steps, e.g. minutes, counted from 1970-01-01T00:00.
+     */
+    public static GranularTimeline<LocalDateTime> withGranularity(Duration granularity) {
+        return GranularTimeline.of(LocalDateTime.class, EPOCH, granularity);
+    }
+}
@@ -0,0 +1,60 @@
+package org.repozoo.commons.range.factories;
+
+import org.repozoo.commons.range.LongRangeSet;
+import org.repozoo.commons.range.Range;
+import org.repozoo.commons.range.RangeFactory;
+import org.repozoo.commons.range.RangeSet;
+import org.repozoo.commons.range.RangeSetFormat;
+
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+public class LongRange {
+
+    private LongRange() {}
+
+    private static final RangeFactory.CreateRange<Long> createRange = createLongRange();
+    private static final RangeSetFormat<Long> textFormat = RangeSetFormat.of(createRange,
+            (text, start, end) -> Long.parseLong(text, start, end, 10),
+            (value, out) -> {
+                if (out instanceof StringBuilder builder) {
+                    builder.append(value.longValue());
+                } else {
+                    out.append(value.toString());
+                }
+            });
+
+    public static Range<Long> between(Long min, Long max) {
+        return createRange.between(min, max);
+    }
+
+    public static Range<Long> singleton(long l) {
+        return createRange.between(l, l);
+    }
+
+    /**
+     * Passes all values of rangeSet in ascending order to chunkConsumer, in arrays of size values (the last one may be smaller), without boxing.
+     */
+    public static void forEachLongChunk(RangeSet<Long> rangeSet, int size, Consumer<long[]> chunkConsumer) {
+        LongRangeSet.of(rangeSet).forEachLongChunk(size, chunkConsumer);
+    }
+
+    /**
+     * Returns the text format of long range sets, e.g. <code>-5..7</code>, see {@link RangeSetFormat}.
+     */
+    public static RangeSetFormat<Long> textFormat() {
+        return textFormat;
+    }
+
+    private static RangeFactory.CreateRange<Long> createLongRange() {
+        UnaryOperator<Long> next = n -> n + 1;
+        UnaryOperator<Long> previous = n -> n - 1;
+        return RangeFactory.forType(Long.class)
+                .withComparator(Comparator.naturalOrder())
+                .withIterator(next, previous)
+                .withDistance((from, to) -> to - from)
+                .withOffset((value, steps) -> value + steps)
+                .build();
+    }
+}
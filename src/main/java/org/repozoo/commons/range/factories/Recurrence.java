@@ -0,0 +1,233 @@
+package org.repozoo.commons.range.factories;
+
+import org.repozoo.commons.range.IndexedRangeSet;
+import org.repozoo.commons.range.Range;
+import org.repozoo.commons.range.RangeExpression;
+import org.repozoo.commons.range.RangeSet;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A recurring time window, e.g. every Monday from 09:00 to 17:00, without materializing its occurrences.<br>
+ * Each occurrence lasts from <code>from</code> (inclusive) to <code>to</code> (exclusive) on every matching date,
+ * <code>to</code> being {@link LocalTime#MIDNIGHT} means until the end of the day.
+ * <pre>
+ * Recurrence businessHours = Recurrence.weekly(EnumSet.range(MONDAY, FRIDAY), LocalTime.of(9, 0), LocalTime.of(17, 0))
+ *     .except(holidays);
+ * businessHours.contains(LocalDateTime.of(2024, 1, 8, 10, 30)); // true, computed without any occurrence
+ * businessHours.intersection(bookings); // expands occurrences within the ranges of bookings only
+ * </pre>
+ * Immutable and thread safe.
+ */
+public final class Recurrence {
+
+    private final DatePattern pattern;
+    private final LocalTime from;
+    private final LocalTime to;
+    private final IndexedRangeSet<LocalDate> exceptions;
+
+    private Recurrence(DatePattern pattern, LocalTime from, LocalTime to, IndexedRangeSet<LocalDate> exceptions) {
+        if (!to.equals(LocalTime.MIDNIGHT) && !to.isAfter(from)) {
+            throw new IllegalArgumentException("to must be after from, windows must not cross midnight, \nfrom: " + from + "\nto: " + to);
+        }
+        this.pattern = pattern;
+        this.from = from;
+        this.to = to;
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * Occurs every day.
+     */
+    public static Recurrence daily(LocalTime from, LocalTime to) {
+        return new Recurrence(date -> date, from, to, noExceptions());
+    }
+
+    /**
+     * Occurs on every of days each week.
+     */
+    public static Recurrence weekly(Set<DayOfWeek> days, LocalTime from, LocalTime to) {
+        if (days.isEmpty()) {
+            throw new IllegalArgumentException("days must not be empty");
+        }
+        Set<DayOfWeek> daySet = EnumSet.copyOf(days);
+        DatePattern pattern = date -> {
+            while (!daySet.contains(date.getDayOfWeek())) {
+                date = date.plusDays(1);
+            }
+            return date;
+        };
+        return new Recurrence(pattern, from, to, noExceptions());
+    }
+
+    /**
+     * Occurs on dayOfMonth each month, months being shorter are skipped.
+     */
+    public static Recurrence monthly(int dayOfMonth, LocalTime from, LocalTime to) {
+        if (dayOfMonth < 1 || dayOfMonth > 31) {
+            throw new IllegalArgumentException("dayOfMonth must be within [1, 31], \ndayOfMonth: " + dayOfMonth);
+        }
+        return new Recurrence(monthlyPattern(month -> dayOfMonth <= month.lengthOfMonth() ? month.atDay(dayOfMonth) : null),
+            from, to, noExceptions());
+    }
+
+    /**
+     * Occurs on the n-th dayOfWeek each month, counting from the end of the month if n is negative
+     * (e.g. <code>nthWeekday(-1, FRIDAY, ...)</code> is the last Friday). Months without an n-th dayOfWeek are skipped.
+     */
+    public static Recurrence nthWeekday(int n, DayOfWeek dayOfWeek, LocalTime from, LocalTime to) {
+        if (n == 0 || n < -5 || n > 5) {
+            throw new IllegalArgumentException("n must be within [-5, -1] or [1, 5], \nn: " + n);
+        }
+        return new Recurrence(monthlyPattern(month -> {
+            LocalDate date = month.atDay(1).with(TemporalAdjusters.dayOfWeekInMonth(n, dayOfWeek));
+            return YearMonth.from(date).equals(month) ? date : null;
+        }), from, to, noExceptions());
+    }
+
+    /**
+     * Returns a recurrence not occurring on dates (in addition to the exceptions of this one).
+     */
+    public Recurrence except(RangeSet<LocalDate> dates) {
+        return new Recurrence(pattern, from, to, IndexedRangeSet.of(exceptions.add(dates)));
+    }
+
+    /**
+     * Returns true if an occurrence contains dateTime, computed without expanding any occurrence.
+     */
+    public boolean contains(LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        LocalTime time = dateTime.toLocalTime();
+        return !time.isBefore(from)
+            && (to.equals(LocalTime.MIDNIGHT) || time.isBefore(to))
+            && pattern.nextOrSame(date).equals(date)
+            && !exceptions.contains(date);
+    }
+
+    /**
+     * Returns the occurrences within bounds (cut at the bounds), expanded lazily while being streamed.
+     */
+    public RangeSet<LocalDateTime> within(Range<LocalDateTime> bounds) {
+        return () -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Occurrences(bounds),
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns the occurrences within others, expanding only occurrences within the ranges of others.
+     */
+    public RangeSet<LocalDateTime> intersection(RangeSet<LocalDateTime> others) {
+        return () -> others.streamRanges().flatMap(range -> within(range).streamRanges());
+    }
+
+    /**
+     * Returns others without the occurrences, expanding only occurrences within the ranges of others.
+     */
+    public RangeSet<LocalDateTime> removeFrom(RangeSet<LocalDateTime> others) {
+        return RangeExpression.of(others).remove(intersection(others));
+    }
+
+    /**
+     * Returns the first date on or after date the pattern occurs on.
+     */
+    private interface DatePattern {
+        LocalDate nextOrSame(LocalDate date);
+    }
+
+    /**
+     * Returns a pattern occurring at most once a month, dayInMonth returning null for months without occurrence.
+     */
+    private static DatePattern monthlyPattern(Function<YearMonth, LocalDate> dayInMonth) {
+        return date -> {
+            YearMonth month = YearMonth.from(date);
+            LocalDate candidate = dayInMonth.apply(month);
+            while (candidate == null || candidate.isBefore(date)) {
+                month = month.plusMonths(1);
+                candidate = dayInMonth.apply(month);
+            }
+            return candidate;
+        };
+    }
+
+    private static IndexedRangeSet<LocalDate> noExceptions() {
+        return IndexedRangeSet.of(RangeSet.empty());
+    }
+
+    /**
+     * Returns the first date on or after date having an occurrence, skipping whole exception ranges at once.
+     */
+    private LocalDate nextOccurrence(LocalDate date) {
+        LocalDate candidate = pattern.nextOrSame(date);
+        Optional<Range<LocalDate>> exception = exceptions.rangeContaining(candidate);
+        while (exception.isPresent()) {
+            candidate = pattern.nextOrSame(exception.get().max().plusDays(1));
+            exception = exceptions.rangeContaining(candidate);
+        }
+        return candidate;
+    }
+
+    private Range<LocalDateTime> occurrence(LocalDate date) {
+        return to.equals(LocalTime.MIDNIGHT)
+            ? LocalDateTimeRange.between(date.atTime(from), date.atTime(LocalTime.MAX))
+            : LocalDateTimeRange.halfOpen(date.atTime(from), date.atTime(to));
+    }
+
+    /**
+     * Expands the occurrences within bounds date by date, merging adjacent occurrences (of all-day windows).
+     */
+    private final class Occurrences implements Iterator<Range<LocalDateTime>> {
+
+        private final Range<LocalDateTime> bounds;
+        private final LocalDate lastDate;
+        private LocalDate date;
+
+        Occurrences(Range<LocalDateTime> bounds) {
+            this.bounds = bounds;
+            this.lastDate = bounds.max().toLocalDate();
+            this.date = nextOccurrence(bounds.min().toLocalDate());
+            skipOccurrencesBeforeBounds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !date.isAfter(lastDate) && !occurrence(date).min().isAfter(bounds.max());
+        }
+
+        @Override
+        public Range<LocalDateTime> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LocalDateTime min = occurrence(date).min();
+            LocalDateTime max = occurrence(date).max();
+            date = nextOccurrence(date.plusDays(1));
+            while (hasNext() && occurrence(date).min().equals(max.plusNanos(1))) {
+                max = occurrence(date).max();
+                date = nextOccurrence(date.plusDays(1));
+            }
+            LocalDateTime clippedMin = min.isBefore(bounds.min()) ? bounds.min() : min;
+            LocalDateTime clippedMax = max.isAfter(bounds.max()) ? bounds.max() : max;
+            return LocalDateTimeRange.between(clippedMin, clippedMax);
+        }
+
+        private void skipOccurrencesBeforeBounds() {
+            if (!date.isAfter(lastDate) && occurrence(date).max().isBefore(bounds.min())) {
+                date = nextOccurrence(date.plusDays(1));
+            }
+        }
+    }
+}
@@ -2,8 +2,13 @@ package org.repozoo.commons.range.factories;
 
 import org.repozoo.commons.range.Range;
 import org.repozoo.commons.range.RangeFactory;
+import org.repozoo.commons.range.RangeSet;
 
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.UnaryOperator;
 
 public class YearMonthRange {
@@ -16,12 +21,55 @@ public class YearMonthRange {
         return createRange.between(min, max);
     }
 
+    /**
+     * Returns the months containing at least one day of days.<br>
+     * Computed per range from its bounds instead of per day, e.g. <code>[2021-01-31..2021-02-01]</code> touches <code>[2021-01..2021-02]</code>.
+     */
+    public static RangeSet<YearMonth> touchedByDays(RangeSet<LocalDate> days) {
+        List<Range<YearMonth>> months = new ArrayList<>();
+        days.streamRanges().forEach(range -> months.add(between(YearMonth.from(range.min()), YearMonth.from(range.max()))));
+        return RangeSet.of(months);
+    }
+
+    /**
+     * Returns the months all days of which are contained in days.<br>
+     * e.g. <code>[2021-01-31..2021-03-31]</code> covers <code>[2021-02..2021-03]</code>.
+     */
+    public static RangeSet<YearMonth> coveredByDays(RangeSet<LocalDate> days) {
+        List<Range<YearMonth>> months = new ArrayList<>();
+        days.streamRanges().forEach(range -> {
+            YearMonth min = YearMonth.from(range.min());
+            YearMonth max = YearMonth.from(range.max());
+            if (range.min().getDayOfMonth() != 1) {
+                min = min.plusMonths(1);
+            }
+            if (!range.max().equals(max.atEndOfMonth())) {
+                max = max.minusMonths(1);
+            }
+            if (!min.isAfter(max)) {
+                months.add(between(min, max));
+            }
+        });
+        return RangeSet.of(months);
+    }
+
+    /**
+     * Returns all days of months, one range per range of months.
+     */
+    public static RangeSet<LocalDate> toDays(RangeSet<YearMonth> months) {
+        List<Range<LocalDate>> days = new ArrayList<>();
+        months.streamRanges().forEach(range -> days.add(LocalDateRange.between(range.min().atDay(1), range.max().atEndOfMonth())));
+        return RangeSet.of(days);
+    }
+
     private static RangeFactory.CreateRange<YearMonth> createRange() {
         UnaryOperator<YearMonth> next = n -> n.plusMonths(1);
         UnaryOperator<YearMonth> previous = n ->  n.minusMonths(1);
         return RangeFactory.forType(YearMonth.class)
                 .withComparator(YearMonth::compareTo)
                 .withIterator(next, previous)
+                .withDistance(ChronoUnit.MONTHS::between)
+                .withOffset(YearMonth::plusMonths)
                 .build();
     }
 }
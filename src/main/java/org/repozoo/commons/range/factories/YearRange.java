@@ -0,0 +1,91 @@
+package org.repozoo.commons.range.factories;
+
+import org.repozoo.commons.range.Range;
+import org.repozoo.commons.range.RangeFactory;
+import org.repozoo.commons.range.RangeSet;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+public class YearRange {
+
+    private YearRange() {}
+
+    private static final RangeFactory.CreateRange<Year> createRange = createRange();
+
+    public static Range<Year> between(Year min, Year max) {
+        return createRange.between(min, max);
+    }
+
+    /**
+     * Returns the years containing at least one month of months.<br>
+     * Computed per range from its bounds, e.g. <code>[2021-12..2022-01]</code> touches <code>[2021..2022]</code>.
+     */
+    public static RangeSet<Year> touchedByMonths(RangeSet<YearMonth> months) {
+        List<Range<Year>> years = new ArrayList<>();
+        months.streamRanges().forEach(range -> years.add(between(Year.of(range.min().getYear()), Year.of(range.max().getYear()))));
+        return RangeSet.of(years);
+    }
+
+    /**
+     * Returns the years all months of which are contained in months.<br>
+     * e.g. <code>[2021-12..2023-01]</code> covers <code>[2022..2022]</code>.
+     */
+    public static RangeSet<Year> coveredByMonths(RangeSet<YearMonth> months) {
+        List<Range<Year>> years = new ArrayList<>();
+        months.streamRanges().forEach(range -> {
+            int min = range.min().getMonthValue() == 1 ? range.min().getYear() : range.min().getYear() + 1;
+            int max = range.max().getMonthValue() == 12 ? range.max().getYear() : range.max().getYear() - 1;
+            if (min <= max) {
+                years.add(between(Year.of(min), Year.of(max)));
+            }
+        });
+        return RangeSet.of(years);
+    }
+
+    /**
+     * Returns the years containing at least one day of days.
+     */
+    public static RangeSet<Year> touchedByDays(RangeSet<LocalDate> days) {
+        return touchedByMonths(YearMonthRange.touchedByDays(days));
+    }
+
+    /**
+     * Returns the years all days of which are contained in days.
+     */
+    public static RangeSet<Year> coveredByDays(RangeSet<LocalDate> days) {
+        return coveredByMonths(YearMonthRange.coveredByDays(days));
+    }
+
+    /**
+     * Returns all months of years, one range per range of years.
+     */
+    public static RangeSet<YearMonth> toMonths(RangeSet<Year> years) {
+        List<Range<YearMonth>> months = new ArrayList<>();
+        years.streamRanges().forEach(range -> months.add(YearMonthRange.between(range.min().atMonth(1), range.max().atMonth(12))));
+        return RangeSet.of(months);
+    }
+
+    /**
+     * Returns all days of years, one range per range of years.
+     */
+    public static RangeSet<LocalDate> toDays(RangeSet<Year> years) {
+        return YearMonthRange.toDays(toMonths(years));
+    }
+
+    private static RangeFactory.CreateRange<Year> createRange() {
+        UnaryOperator<Year> next = n -> n.plusYears(1);
+        UnaryOperator<Year> previous = n -> n.minusYears(1);
+        return RangeFactory.forType(Year.class)
+                .withComparator(Year::compareTo)
+                .withIterator(next, previous)
+                .withDistance(ChronoUnit.YEARS::between)
+                .withOffset(Year::plusYears)
+                .build();
+    }
+}
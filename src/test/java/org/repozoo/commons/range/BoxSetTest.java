@@ -0,0 +1,145 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.InstantRange;
+import org.repozoo.commons.range.factories.IntRange;
+import org.repozoo.commons.range.factories.LocalDateRange;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoxSetTest {
+
+    private static final LocalDate D0 = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void remove_cutsAtMostTwoPiecesPerDimension() {
+        Box whole = box(0, 9, 0, 9);
+
+        List<Box> pieces = whole.remove(box(3, 5, 3, 5));
+
+        assertThat(pieces).containsExactly(box(0, 2, 0, 9), box(6, 9, 0, 9), box(3, 5, 0, 2), box(3, 5, 6, 9));
+        assertThat(pieces.stream().mapToLong(Box::countValues).sum()).isEqualTo(100 - 9);
+        assertThat(whole.remove(box(20, 30, 0, 9))).containsExactly(whole);
+        assertThat(whole.remove(box(-5, 15, -5, 15))).isEmpty();
+    }
+
+    @Test
+    void intersection() {
+        assertThat(box(0, 9, 0, 9).intersection(box(5, 15, -3, 2))).contains(box(5, 9, 0, 2));
+        assertThat(box(0, 9, 0, 9).intersection(box(10, 15, 0, 9))).isEmpty();
+        assertThatThrownBy(() -> box(0, 9, 0, 9).intersects(Box.of(IntRange.between(0, 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void equalsAndHashCode_ofHugeSets_doNotCountValues() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        Instant middle = start.plus(Duration.ofDays(180));
+        Instant end = start.plus(Duration.ofDays(365));
+        Range<Instant> year = InstantRange.between(start, end);
+        BoxSet whole = BoxSet.of(Box.of(year, year));
+        BoxSet split = BoxSet.of(
+                Box.of(InstantRange.between(start, middle), year),
+                Box.of(InstantRange.between(middle.plusNanos(1), end), year));
+
+        assertThat(split).isEqualTo(whole);
+        assertThat(split.hashCode()).isEqualTo(whole.hashCode());
+        assertThat(whole.remove(Box.of(InstantRange.between(middle, middle), year))).isNotEqualTo(whole);
+        assertThatThrownBy(whole::countValues).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void roomsByDates() {
+        Box hotel = Box.of(IntRange.between(101, 110), LocalDateRange.between(D0, D0.plusDays(29)));
+        Box booking1 = Box.of(IntRange.between(101, 101), LocalDateRange.between(D0.plusDays(3), D0.plusDays(5)));
+        Box booking2 = Box.of(IntRange.between(101, 102), LocalDateRange.between(D0.plusDays(5), D0.plusDays(9)));
+
+        BoxSet occupied = BoxSet.of(booking1, booking2);
+        BoxSet free = BoxSet.of(hotel).remove(occupied);
+
+        assertThat(occupied.countValues()).isEqualTo(3 + 10 - 1);
+        assertThat(free.countValues()).isEqualTo(300 - 12);
+        assertThat(free.intersects(booking1)).isFalse();
+        assertThat(free.add(occupied)).isEqualTo(BoxSet.of(hotel));
+        assertThat(free.contains(Box.of(IntRange.between(101, 110), LocalDateRange.between(D0, D0.plusDays(2))))).isTrue();
+        assertThat(free.contains(Box.of(IntRange.between(101, 110), LocalDateRange.between(D0, D0.plusDays(3))))).isFalse();
+    }
+
+    @Test
+    void of_overlappingBoxes_keepsThemDisjoint() {
+        Random random = new Random(7);
+        List<Box> boxes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            boxes.add(randomBox(random));
+        }
+
+        BoxSet set = BoxSet.of(boxes);
+
+        List<Box> disjoint = set.boxes();
+        for (int i = 0; i < disjoint.size(); i++) {
+            for (int j = i + 1; j < disjoint.size(); j++) {
+                assertThat(disjoint.get(i).intersects(disjoint.get(j))).isFalse();
+            }
+        }
+        assertThat(boxes).allMatch(set::contains);
+        assertThat(set.countValues()).isEqualTo(countCells(boxes));
+    }
+
+    @Test
+    void index_matchesLinearScan() {
+        Random random = new Random(42);
+        List<Box> boxes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            boxes.add(randomBox(random));
+        }
+        BoxIndex<Box> index = BoxIndex.of(boxes, b -> b);
+
+        assertThat(index.size()).isEqualTo(1000);
+        for (int i = 0; i < 50; i++) {
+            Box query = randomBox(random);
+            assertThat(index.overlapping(query)).containsExactlyInAnyOrderElementsOf(
+                    boxes.stream().filter(query::intersects).toList());
+            assertThat(index.within(query)).containsExactlyInAnyOrderElementsOf(
+                    boxes.stream().filter(query::contains).toList());
+            assertThat(index.containing(query)).containsExactlyInAnyOrderElementsOf(
+                    boxes.stream().filter(b -> b.contains(query)).toList());
+            List<Double> expected = boxes.stream().map(query::distanceTo).sorted().limit(5).toList();
+            assertThat(index.nearest(query, 5).stream().map(query::distanceTo).toList()).isEqualTo(expected);
+        }
+        assertThat(BoxIndex.of(List.<Box>of(), b -> b).overlapping(box(0, 1, 0, 1))).isEmpty();
+    }
+
+    private static Box randomBox(Random random) {
+        int x = random.nextInt(100);
+        int y = random.nextInt(100);
+        return box(x, x + random.nextInt(10), y, y + random.nextInt(10));
+    }
+
+    private static long countCells(List<Box> boxes) {
+        boolean[][] cells = new boolean[120][120];
+        long count = 0;
+        for (Box b : boxes) {
+            for (int x = (Integer) b.range(0).min(); x <= (Integer) b.range(0).max(); x++) {
+                for (int y = (Integer) b.range(1).min(); y <= (Integer) b.range(1).max(); y++) {
+                    if (!cells[x][y]) {
+                        cells[x][y] = true;
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Box box(int x1, int x2, int y1, int y2) {
+        return Box.of(IntRange.between(x1, x2), IntRange.between(y1, y2));
+    }
+}
@@ -0,0 +1,105 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.BusinessCalendar;
+import org.repozoo.commons.range.factories.LocalDateRange;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BusinessCalendarTest {
+
+    private static final RangeSet<LocalDate> HOLIDAYS = RangeSet.of(
+            LocalDateRange.between(LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 26)),
+            LocalDateRange.between(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1)),
+            LocalDateRange.between(LocalDate.of(2025, 7, 28), LocalDate.of(2025, 8, 10)));
+
+    private final BusinessCalendar calendar = BusinessCalendar.of(HOLIDAYS);
+
+    @Test
+    void plusWorkingDays() {
+        assertThat(calendar.plusWorkingDays(LocalDate.of(2024, 12, 20), 3)).isEqualTo(LocalDate.of(2024, 12, 27));
+        assertThat(calendar.plusWorkingDays(LocalDate.of(2024, 12, 21), 1)).isEqualTo(LocalDate.of(2024, 12, 23));
+        assertThat(calendar.plusWorkingDays(LocalDate.of(2024, 12, 27), -3)).isEqualTo(LocalDate.of(2024, 12, 20));
+        assertThat(calendar.plusWorkingDays(LocalDate.of(2025, 7, 25), 1)).isEqualTo(LocalDate.of(2025, 8, 11));
+        assertThat(calendar.plusWorkingDays(LocalDate.of(2024, 12, 22), 0)).isEqualTo(LocalDate.of(2024, 12, 22));
+    }
+
+    @Test
+    void workingDaysBetween() {
+        assertThat(calendar.workingDaysBetween(LocalDate.of(2024, 12, 20), LocalDate.of(2024, 12, 27))).isEqualTo(3);
+        assertThat(calendar.workingDaysBetween(LocalDate.of(2024, 12, 27), LocalDate.of(2024, 12, 20))).isEqualTo(-3);
+        assertThat(calendar.workingDaysBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1))).isEqualTo(260 - 10);
+    }
+
+    @Test
+    void matchesDayByDayStepping() {
+        Random random = new Random(7);
+        BusinessCalendar fourDayWeek = BusinessCalendar.of(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), HOLIDAYS);
+        for (BusinessCalendar businessCalendar : new BusinessCalendar[]{calendar, fourDayWeek}) {
+            for (int i = 0; i < 200; i++) {
+                LocalDate date = LocalDate.of(2024, 11, 1).plusDays(random.nextInt(400));
+                int days = random.nextInt(80) - 40;
+
+                LocalDate expected = date;
+                for (int step = 0; step < Math.abs(days); step++) {
+                    do {
+                        expected = expected.plusDays(Integer.signum(days));
+                    } while (!businessCalendar.isWorkingDay(expected));
+                }
+                assertThat(businessCalendar.plusWorkingDays(date, days)).isEqualTo(expected);
+
+                if (days > 0) {
+                    long expectedCount = date.datesUntil(expected.plusDays(1)).filter(businessCalendar::isWorkingDay).count();
+                    assertThat(businessCalendar.workingDaysBetween(date, expected.plusDays(1))).isEqualTo(expectedCount);
+                }
+            }
+        }
+    }
+
+    @Test
+    void between_stepsOverNonWorkingDays() {
+        Range<LocalDate> range = calendar.between(LocalDate.of(2024, 12, 21), LocalDate.of(2025, 1, 5));
+
+        assertThat(range.min()).isEqualTo(LocalDate.of(2024, 12, 23));
+        assertThat(range.max()).isEqualTo(LocalDate.of(2025, 1, 3));
+        assertThat(range.countValues()).isEqualTo(7);
+        assertThat(range.streamValues()).containsExactly(
+                LocalDate.of(2024, 12, 23),
+                LocalDate.of(2024, 12, 24),
+                LocalDate.of(2024, 12, 27),
+                LocalDate.of(2024, 12, 30),
+                LocalDate.of(2024, 12, 31),
+                LocalDate.of(2025, 1, 2),
+                LocalDate.of(2025, 1, 3));
+        assertThatThrownBy(() -> calendar.between(LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 26)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void between_doesNotContainNonWorkingDays() {
+        Range<LocalDate> range = calendar.between(LocalDate.of(2024, 12, 23), LocalDate.of(2025, 1, 3));
+        LocalDate saturday = LocalDate.of(2024, 12, 28);
+        LocalDate holiday = LocalDate.of(2024, 12, 25);
+        LocalDate friday = LocalDate.of(2024, 12, 27);
+
+        assertThat(range.contains(saturday)).isFalse();
+        assertThat(range.contains(holiday)).isFalse();
+        assertThat(range.contains(friday)).isTrue();
+
+        IndexedRangeSet<LocalDate> set = IndexedRangeSet.of(RangeSet.of(range));
+        assertThat(set.contains(saturday)).isFalse();
+        assertThat(set.rangeContaining(holiday)).isEmpty();
+        assertThat(set.containsAll(List.of(friday, saturday, holiday)).stream()).containsExactly(0);
+        assertThat(set.filter(Stream.of(friday, saturday, holiday))).containsExactly(friday);
+        assertThat(RangeSet.of(range).contains(saturday)).isFalse();
+    }
+
+}
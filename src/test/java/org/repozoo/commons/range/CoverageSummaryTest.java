@@ -0,0 +1,60 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.LocalDateRange;
+import org.repozoo.commons.range.factories.YearMonthRange;
+import org.repozoo.commons.range.factories.YearRange;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoverageSummaryTest {
+
+    private static final RangeSet<LocalDate> DAYS = RangeSet.of(
+            LocalDateRange.between(LocalDate.of(2023, 12, 15), LocalDate.of(2024, 3, 31)),
+            LocalDateRange.between(LocalDate.of(2024, 5, 10), LocalDate.of(2024, 5, 10)));
+
+    @Test
+    void coarsen_touchedAndCovered() {
+        assertThat(YearMonthRange.touchedByDays(DAYS).getRanges()).containsExactly(
+                YearMonthRange.between(YearMonth.of(2023, 12), YearMonth.of(2024, 3)),
+                YearMonthRange.between(YearMonth.of(2024, 5), YearMonth.of(2024, 5)));
+        assertThat(YearMonthRange.coveredByDays(DAYS).getRanges()).containsExactly(
+                YearMonthRange.between(YearMonth.of(2024, 1), YearMonth.of(2024, 3)));
+
+        assertThat(YearRange.touchedByDays(DAYS).getRanges()).containsExactly(
+                YearRange.between(Year.of(2023), Year.of(2024)));
+        assertThat(YearRange.coveredByDays(DAYS).isEmpty()).isTrue();
+        assertThat(YearRange.coveredByMonths(RangeSet.of(
+                YearMonthRange.between(YearMonth.of(2020, 12), YearMonth.of(2023, 1)))).getRanges()).containsExactly(
+                YearRange.between(Year.of(2021), Year.of(2022)));
+    }
+
+    @Test
+    void refine_andCoarsenAgain() {
+        RangeSet<Year> years = RangeSet.of(YearRange.between(Year.of(2020), Year.of(2021)));
+
+        RangeSet<LocalDate> days = YearRange.toDays(years);
+
+        assertThat(days.getRanges()).containsExactly(LocalDateRange.between(LocalDate.of(2020, 1, 1), LocalDate.of(2021, 12, 31)));
+        assertThat(YearRange.coveredByDays(days)).isEqualTo(years);
+        assertThat(YearMonthRange.toDays(YearMonthRange.coveredByDays(DAYS)).getRanges()).containsExactly(
+                LocalDateRange.between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)));
+    }
+
+    @Test
+    void ratios() {
+        CoverageSummary summary = CoverageSummary.of(DAYS);
+
+        assertThat(summary.coveredDays()).isEqualTo(17 + 31 + 29 + 31 + 1);
+        assertThat(summary.ratio(YearMonth.of(2023, 12))).isCloseTo(17.0 / 31, within(1e-9));
+        assertThat(summary.ratio(Year.of(2024))).isCloseTo(92.0 / 366, within(1e-9));
+        assertThat(summary.ratio(LocalDateRange.between(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 10)))).isCloseTo(0.1, within(1e-9));
+        assertThat(summary.monthlyRatios(YearMonth.of(2024, 2), YearMonth.of(2024, 6))).containsExactly(1.0, 1.0, 0.0, 1.0 / 31, 0.0);
+        assertThat(summary.yearlyRatios(Year.of(2022), Year.of(2023))).containsExactly(0.0, 17.0 / 365);
+    }
+}
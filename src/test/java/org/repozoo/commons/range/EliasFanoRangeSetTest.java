@@ -0,0 +1,110 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.LongRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EliasFanoRangeSetTest {
+
+    @Test
+    void streamRanges_decodesAllRanges() {
+        LongRangeSet rangeSet = randomRangeSet(new Random(5), 10_000_000L, 2_000);
+
+        EliasFanoRangeSet compressed = EliasFanoRangeSet.of(rangeSet);
+
+        assertThat(compressed.rangeCount()).isEqualTo(rangeSet.rangeCount());
+        assertThat(compressed.getRanges()).isEqualTo(rangeSet.getRanges());
+        assertThat(compressed.range(17)).isEqualTo(LongRange.between(rangeSet.min(17), rangeSet.max(17)));
+        assertThat(compressed.memoryBytes()).isLessThan(rangeSet.rangeCount() * 2L * Long.BYTES);
+    }
+
+    @Test
+    void contains_matchesRangeSet() {
+        Random random = new Random(11);
+        LongRangeSet rangeSet = randomRangeSet(random, 1_000_000L, 500);
+        EliasFanoRangeSet compressed = EliasFanoRangeSet.of(rangeSet);
+
+        for (int i = 0; i < 20_000; i++) {
+            long value = random.nextLong() % 1_100_000L;
+            assertThat(compressed.contains(value)).isEqualTo(rangeSet.contains(value));
+        }
+        for (int i = 0; i < rangeSet.rangeCount(); i++) {
+            assertThat(compressed.contains(rangeSet.min(i))).isTrue();
+            assertThat(compressed.contains(rangeSet.max(i))).isTrue();
+            assertThat(compressed.contains(rangeSet.max(i) + 1)).isFalse();
+        }
+    }
+
+    @Test
+    void contains_withAllBoundsInOneBucket() {
+        Random random = new Random(13);
+        List<Range<Long>> ranges = new ArrayList<>(randomRangeSet(random, 100_000L, 1_000).getRanges());
+        ranges.add(LongRange.between(1L << 40, (1L << 40) + 5));
+        LongRangeSet rangeSet = LongRangeSet.of(RangeSet.of(ranges));
+        EliasFanoRangeSet compressed = EliasFanoRangeSet.of(rangeSet);
+
+        for (int i = 0; i < 20_000; i++) {
+            long value = random.nextInt(110_000);
+            assertThat(compressed.contains(value)).isEqualTo(rangeSet.contains(value));
+        }
+        assertThat(compressed.contains((1L << 40) + 5)).isTrue();
+        assertThat(compressed.contains((1L << 40) + 6)).isFalse();
+    }
+
+    @Test
+    void rangeContaining_and_ceiling() {
+        EliasFanoRangeSet compressed = EliasFanoRangeSet.of(RangeSet.of(
+                LongRange.between(-5L, 3L),
+                LongRange.singleton(10L),
+                LongRange.between(1_000L, 2_000L)));
+
+        assertThat(compressed.rangeContaining(0)).isEqualTo(Optional.of(LongRange.between(-5L, 3L)));
+        assertThat(compressed.rangeContaining(10)).isEqualTo(Optional.of(LongRange.singleton(10L)));
+        assertThat(compressed.rangeContaining(11)).isEmpty();
+        assertThat(compressed.ceiling(-100)).isEqualTo(OptionalLong.of(-5));
+        assertThat(compressed.ceiling(4)).isEqualTo(OptionalLong.of(10));
+        assertThat(compressed.ceiling(1_500)).isEqualTo(OptionalLong.of(1_500));
+        assertThat(compressed.ceiling(2_001)).isEmpty();
+    }
+
+    @Test
+    void fullUniverse() {
+        EliasFanoRangeSet compressed = EliasFanoRangeSet.of(RangeSet.of(
+                LongRange.singleton(Long.MIN_VALUE),
+                LongRange.between(0L, 1L),
+                LongRange.singleton(Long.MAX_VALUE)));
+
+        assertThat(compressed.contains(Long.MIN_VALUE)).isTrue();
+        assertThat(compressed.contains(Long.MIN_VALUE + 1)).isFalse();
+        assertThat(compressed.contains(1L)).isTrue();
+        assertThat(compressed.contains(Long.MAX_VALUE)).isTrue();
+        assertThat(compressed.contains(Long.MAX_VALUE - 1)).isFalse();
+        assertThat(compressed.getRanges()).hasSize(3);
+    }
+
+    @Test
+    void empty() {
+        EliasFanoRangeSet compressed = EliasFanoRangeSet.of(RangeSet.<Long>empty());
+
+        assertThat(compressed.isEmpty()).isTrue();
+        assertThat(compressed.contains(0L)).isFalse();
+        assertThat(compressed.ceiling(0)).isEmpty();
+        assertThat(compressed.getRanges()).isEmpty();
+    }
+
+    private static LongRangeSet randomRangeSet(Random random, long bound, int count) {
+        List<Range<Long>> ranges = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long min = Math.floorMod(random.nextLong(), bound);
+            ranges.add(LongRange.between(min, min + random.nextInt(200)));
+        }
+        return LongRangeSet.of(RangeSet.of(ranges));
+    }
+}
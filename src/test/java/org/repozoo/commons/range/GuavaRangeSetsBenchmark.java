@@ -0,0 +1,88 @@
+package org.repozoo.commons.range;
+
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.TreeRangeSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the {@link GuavaRangeSets} views against copying the ranges.<br>
+ * Run {@link #main(String[])} on the test classpath, or after <code>mvn test-compile</code>:
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test dependencies&gt; org.openjdk.jmh.Main GuavaRangeSetsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuavaRangeSetsBenchmark {
+
+    @Param({"100", "10000"})
+    int rangeCount;
+
+    private TreeRangeSet<Integer> guava;
+    private RangeSet<Integer> rangeSet;
+    private com.google.common.collect.RangeSet<Integer> guavaView;
+    private int[] probes;
+
+    @Setup
+    public void setUp() {
+        guava = TreeRangeSet.create();
+        for (int i = 0; i < rangeCount; i++) {
+            guava.add(com.google.common.collect.Range.closedOpen(i * 10, i * 10 + 5));
+        }
+        rangeSet = GuavaRangeSets.asRangeSet(guava, DiscreteDomain.integers(), IntRange::between);
+        guavaView = GuavaRangeSets.asGuavaRangeSet(RangeSet.of(rangeSet.getRanges()));
+        probes = new Random(1).ints(1024, 0, rangeCount * 10).toArray();
+    }
+
+    @Benchmark
+    public long streamView() {
+        return rangeSet.streamRanges().count();
+    }
+
+    @Benchmark
+    public Object copyToRangeSet() {
+        return RangeSet.of(rangeSet.getRanges());
+    }
+
+    @Benchmark
+    public void containsGuavaView(Blackhole blackhole) {
+        for (int probe : probes) {
+            blackhole.consume(guavaView.contains(probe));
+        }
+    }
+
+    @Benchmark
+    public void containsGuavaCopy(Blackhole blackhole) {
+        ImmutableRangeSet<Integer> copy = ImmutableRangeSet.copyOf(guavaView);
+        for (int probe : probes) {
+            blackhole.consume(copy.contains(probe));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GuavaRangeSetsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
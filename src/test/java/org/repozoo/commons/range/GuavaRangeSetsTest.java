@@ -0,0 +1,81 @@
+package org.repozoo.commons.range;
+
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.TreeRangeSet;
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GuavaRangeSetsTest {
+
+    @Test
+    void asRangeSet_canonicalizesAndMergesAdjacentRanges() {
+        TreeRangeSet<Integer> guava = TreeRangeSet.create();
+        guava.add(com.google.common.collect.Range.closed(1, 2));
+        guava.add(com.google.common.collect.Range.closedOpen(3, 6));
+        guava.add(com.google.common.collect.Range.open(10, 11));
+        guava.add(com.google.common.collect.Range.open(20, 25));
+        guava.add(com.google.common.collect.Range.atLeast(Integer.MAX_VALUE - 1));
+
+        RangeSet<Integer> view = GuavaRangeSets.asRangeSet(guava, DiscreteDomain.integers(), IntRange::between);
+
+        assertThat(view.getRanges()).containsExactly(
+                IntRange.between(1, 5), IntRange.between(21, 24), IntRange.between(Integer.MAX_VALUE - 1, Integer.MAX_VALUE));
+        assertThat(view.contains(5)).isTrue();
+        assertThat(view.contains(6)).isFalse();
+
+        guava.add(com.google.common.collect.Range.closed(6, 20));
+        assertThat(view.getRanges()).containsExactly(
+                IntRange.between(1, 24), IntRange.between(Integer.MAX_VALUE - 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void asRangeSet_isEmptyIfAllRangesCanonicalizeToEmpty() {
+        TreeRangeSet<Integer> guava = TreeRangeSet.create();
+        guava.add(com.google.common.collect.Range.open(1, 2));
+
+        RangeSet<Integer> view = GuavaRangeSets.asRangeSet(guava, DiscreteDomain.integers(), IntRange::between);
+
+        assertThat(guava.isEmpty()).isFalse();
+        assertThat(view.isEmpty()).isTrue();
+        assertThat(view.getRanges()).isEmpty();
+    }
+
+    @Test
+    void asGuavaRangeSet_answersQueriesByBinarySearch() {
+        RangeSet<Integer> rangeSet = RangeSet.of(IntRange.between(1, 3), IntRange.between(7, 9), IntRange.between(20, 30));
+
+        com.google.common.collect.RangeSet<Integer> view = GuavaRangeSets.asGuavaRangeSet(rangeSet);
+
+        assertThat(view.contains(8)).isTrue();
+        assertThat(view.contains(10)).isFalse();
+        assertThat(view.rangeContaining(25)).isEqualTo(com.google.common.collect.Range.closed(20, 30));
+        assertThat(view.rangeContaining(5)).isNull();
+        assertThat(view.intersects(com.google.common.collect.Range.open(3, 7))).isFalse();
+        assertThat(view.intersects(com.google.common.collect.Range.openClosed(3, 7))).isTrue();
+        assertThat(view.intersects(com.google.common.collect.Range.greaterThan(30))).isFalse();
+        assertThat(view.encloses(com.google.common.collect.Range.closed(21, 29))).isTrue();
+        assertThat(view.encloses(com.google.common.collect.Range.closed(8, 20))).isFalse();
+        assertThat(view.span()).isEqualTo(com.google.common.collect.Range.closed(1, 30));
+        assertThat(view.asDescendingSetOfRanges()).first().isEqualTo(com.google.common.collect.Range.closed(20, 30));
+        assertThat(view.complement().contains(5)).isTrue();
+        assertThatThrownBy(() -> view.add(com.google.common.collect.Range.closed(4, 5)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void roundTrip() {
+        ImmutableRangeSet<Integer> guava = ImmutableRangeSet.<Integer>builder()
+                .add(com.google.common.collect.Range.closed(1, 3))
+                .add(com.google.common.collect.Range.closed(7, 9))
+                .build();
+
+        RangeSet<Integer> view = GuavaRangeSets.asRangeSet(guava, DiscreteDomain.integers(), IntRange::between);
+
+        assertThat(GuavaRangeSets.asGuavaRangeSet(view)).isEqualTo(guava);
+        assertThat(guava).isEqualTo(GuavaRangeSets.asGuavaRangeSet(view));
+    }
+}
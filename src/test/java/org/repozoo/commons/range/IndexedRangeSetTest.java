@@ -0,0 +1,142 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+import org.repozoo.commons.range.factories.LocalDateRange;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedRangeSetTest {
+
+    private final IndexedRangeSet<Integer> occupied = IndexedRangeSet.of(RangeSet.of(
+            IntRange.between(10, 19),
+            IntRange.between(25, 29),
+            IntRange.between(31, 39),
+            IntRange.between(50, 59),
+            IntRange.between(63, 70)));
+
+    @Test
+    void complement() {
+        assertThat(occupied.complement(IntRange.between(0, 100))).containsExactly(
+                IntRange.between(0, 9),
+                IntRange.between(20, 24),
+                IntRange.between(30, 30),
+                IntRange.between(40, 49),
+                IntRange.between(60, 62),
+                IntRange.between(71, 100));
+        assertThat(occupied.complement(IntRange.between(15, 32))).containsExactly(
+                IntRange.between(20, 24),
+                IntRange.between(30, 30));
+        assertThat(occupied.complement(IntRange.between(11, 12))).isEmpty();
+        assertThat(occupied.complement(IntRange.between(41, 42))).containsExactly(IntRange.between(41, 42));
+    }
+
+    @Test
+    void complement_ofLazyRangeSet_isEqual() {
+        RangeSet<Integer> lazy = occupied::streamRanges;
+
+        assertThat(lazy.complement(IntRange.between(15, 65)))
+                .containsExactlyElementsOf(occupied.complement(IntRange.between(15, 65)).toList());
+    }
+
+    @Test
+    void firstGapOfAtLeast() {
+        assertThat(occupied.firstGapOfAtLeast(3, 0)).contains(IntRange.between(0, 9));
+        assertThat(occupied.firstGapOfAtLeast(5, 12)).contains(IntRange.between(20, 24));
+        assertThat(occupied.firstGapOfAtLeast(6, 12)).contains(IntRange.between(40, 49));
+        assertThat(occupied.firstGapOfAtLeast(3, 22)).contains(IntRange.between(22, 24));
+        assertThat(occupied.firstGapOfAtLeast(4, 22)).contains(IntRange.between(40, 49));
+        assertThat(occupied.firstGapOfAtLeast(11, 0)).isEmpty();
+        assertThat(occupied.firstGapOfAtLeast(1, 65)).isEmpty();
+    }
+
+    @Test
+    void firstGapOfAtLeast_beforeFirstRange_isCutAtAfter() {
+        assertThat(occupied.firstGapOfAtLeast(10, 0)).contains(IntRange.between(0, 9));
+        assertThat(occupied.firstGapOfAtLeast(5, 5)).contains(IntRange.between(5, 9));
+        assertThat(occupied.firstGapOfAtLeast(6, 5)).contains(IntRange.between(40, 49));
+    }
+
+    @Test
+    void gapSearch_negativeLength_throws() {
+        assertThatThrownBy(() -> occupied.firstGapOfAtLeast(-1, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("length must not be negative");
+        assertThatThrownBy(() -> occupied.bestFitGap(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("length must not be negative");
+    }
+
+    @Test
+    void bestFitGap() {
+        assertThat(occupied.bestFitGap(1)).contains(IntRange.between(30, 30));
+        assertThat(occupied.bestFitGap(2)).contains(IntRange.between(60, 62));
+        assertThat(occupied.bestFitGap(4)).contains(IntRange.between(20, 24));
+        assertThat(occupied.bestFitGap(6)).contains(IntRange.between(40, 49));
+        assertThat(occupied.bestFitGap(11)).isEmpty();
+        assertThat(IndexedRangeSet.of(IntRange.between(1, 2)).bestFitGap(1)).isEmpty();
+    }
+
+    @Test
+    void bestFitGap_withoutDistanceFunction() {
+        UnaryOperator<Integer> next = n -> n + 1;
+        UnaryOperator<Integer> previous = n -> n - 1;
+        RangeFactory.CreateRange<Integer> createRange = RangeFactory.forType(Integer.class)
+                .withComparator(Comparator.naturalOrder())
+                .withIterator(next, previous)
+                .build();
+        IndexedRangeSet<Integer> rangeSet = IndexedRangeSet.of(RangeSet.of(
+                createRange.between(1, 2),
+                createRange.between(6, 7),
+                createRange.between(9, 9)));
+
+        assertThat(rangeSet.bestFitGap(2)).contains(createRange.between(3, 5));
+        assertThat(rangeSet.bestFitGap(1)).contains(createRange.between(8, 8));
+    }
+
+    @Test
+    void rank_and_select_matchStreamedValues() {
+        List<Integer> values = occupied.streamValues().collect(Collectors.toList());
+
+        assertThat(occupied.countValues()).isEqualTo(values.size());
+        for (int k = 0; k < values.size(); k++) {
+            assertThat(occupied.select(k)).isEqualTo(values.get(k));
+            assertThat(occupied.rank(values.get(k))).isEqualTo(k);
+        }
+        assertThat(occupied.rank(0)).isZero();
+        assertThat(occupied.rank(22)).isEqualTo(10);
+        assertThat(occupied.rank(100)).isEqualTo(values.size());
+        assertThatThrownBy(() -> occupied.select(values.size())).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> occupied.select(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void rank_coveredDaysBeforeDate() {
+        LocalDate jan1 = LocalDate.parse("2022-01-01");
+        IndexedRangeSet<LocalDate> days = IndexedRangeSet.of(RangeSet.of(
+                LocalDateRange.between(jan1, jan1.plusDays(9)),
+                LocalDateRange.between(jan1.plusDays(365), jan1.plusDays(400))));
+
+        assertThat(days.rank(jan1.plusDays(370))).isEqualTo(15);
+        assertThat(days.select(15)).isEqualTo(jan1.plusDays(370));
+    }
+
+    @Test
+    void sample() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(occupied.contains(occupied.sample(random))).isTrue();
+        }
+        assertThatThrownBy(() -> IndexedRangeSet.of(RangeSet.<Integer>empty()).sample(random)).isInstanceOf(NoSuchElementException.class);
+    }
+}
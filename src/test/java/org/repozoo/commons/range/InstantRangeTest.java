@@ -0,0 +1,93 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.GranularTimeline;
+import org.repozoo.commons.range.factories.InstantRange;
+import org.repozoo.commons.range.factories.LocalDateTimeRange;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstantRangeTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void halfOpen_adjacentRangesMerge() {
+        RangeSet<Instant> rangeSet = RangeSet.of(
+                InstantRange.halfOpen(T0, T0.plusSeconds(60)),
+                InstantRange.halfOpen(T0.plusSeconds(60), T0.plusSeconds(120)));
+
+        assertThat(rangeSet.getRanges()).containsExactly(InstantRange.halfOpen(T0, T0.plusSeconds(120)));
+        assertThat(rangeSet.contains(T0.plusSeconds(120).minusNanos(1))).isTrue();
+        assertThat(rangeSet.contains(T0.plusSeconds(120))).isFalse();
+        assertThat(rangeSet.countValues()).isEqualTo(120_000_000_000L);
+        assertThatThrownBy(() -> InstantRange.halfOpen(T0, T0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void setAlgebra_withoutEnumeration() {
+        Range<Instant> year = InstantRange.halfOpen(T0, T0.plus(Duration.ofDays(365)));
+        Range<Instant> day = InstantRange.halfOpen(T0.plus(Duration.ofDays(100)), T0.plus(Duration.ofDays(101)));
+
+        RangeSet<Instant> rest = year.remove(day);
+
+        assertThat(rest.getRanges()).containsExactly(
+                InstantRange.halfOpen(T0, T0.plus(Duration.ofDays(100))),
+                InstantRange.halfOpen(T0.plus(Duration.ofDays(101)), T0.plus(Duration.ofDays(365))));
+        assertThat(rest.add(day).getRanges()).containsExactly(year);
+    }
+
+    @Test
+    void withGranularity() {
+        GranularTimeline<Instant> millis = InstantRange.withGranularity(Duration.ofMillis(1));
+        Range<Instant> second = millis.between(T0, T0.plusSeconds(1));
+
+        assertThat(second.countValues()).isEqualTo(1001);
+        assertThat(second.streamValues(250)).containsExactly(T0, T0.plusMillis(250), T0.plusMillis(500), T0.plusMillis(750), T0.plusSeconds(1));
+        assertThat(millis.halfOpen(T0, T0.plusSeconds(1))).isEqualTo(millis.between(T0, T0.plusMillis(999)));
+        assertThatThrownBy(() -> InstantRange.withGranularity(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void withGranularity_rejectsUnalignedBounds() {
+        GranularTimeline<LocalDateTime> minutes = LocalDateTimeRange.withGranularity(Duration.ofMinutes(15));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        assertThat(minutes.halfOpen(start, start.plusHours(1)).countValues()).isEqualTo(4);
+        assertThatThrownBy(() -> minutes.between(start, start.plusMinutes(20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("max must be aligned");
+        assertThatThrownBy(() -> InstantRange.withGranularity(Duration.ofMillis(1)).between(T0.plusNanos(1), T0.plusSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void streamValues_withExplicitStep() {
+        RangeSet<Instant> rangeSet = RangeSet.of(
+                InstantRange.halfOpen(T0, T0.plusSeconds(2)),
+                InstantRange.between(T0.plusSeconds(10), T0.plusSeconds(11)));
+
+        assertThat(rangeSet.streamValues(Duration.ofSeconds(1).toNanos())).containsExactly(
+                T0, T0.plusSeconds(1), T0.plusSeconds(10), T0.plusSeconds(11));
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        RangeSet<LocalDateTime> hours = RangeSet.of(LocalDateTimeRange.halfOpen(start, start.plusHours(3)));
+        assertThat(hours.streamValues(Duration.ofHours(1).toNanos())).containsExactly(
+                start, start.plusHours(1), start.plusHours(2));
+    }
+
+    @Test
+    void countValues_ofNanosecondRangesOver292Years_throws() {
+        Range<Instant> centuries = InstantRange.between(T0, T0.plus(Duration.ofDays(300 * 365)));
+
+        assertThatThrownBy(centuries::countValues).isInstanceOf(ArithmeticException.class);
+        assertThat(centuries.contains(T0.plus(Duration.ofDays(200 * 365)))).isTrue();
+        assertThat(InstantRange.withGranularity(Duration.ofSeconds(1)).between(T0, T0.plus(Duration.ofDays(300 * 365))).countValues())
+                .isEqualTo(300 * 365 * 86400L + 1);
+    }
+}
@@ -0,0 +1,85 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.LongRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongRangeFilterTest {
+
+    @Test
+    void contains_matchesRangeSet() {
+        Random random = new Random(17);
+        LongRangeSet rangeSet = randomRangeSet(random, 1_000_000L);
+        LongRangeFilter filter = LongRangeFilter.of(rangeSet, 0.1, 1 << 20);
+
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong() % 1_100_000L;
+            assertThat(filter.contains(value)).isEqualTo(rangeSet.contains(value));
+            if (rangeSet.contains(value)) {
+                assertThat(filter.mightContain(value)).isTrue();
+            }
+        }
+        assertThat(filter.falsePositiveRate()).isLessThanOrEqualTo(0.1);
+        assertThat(filter.memoryBytes()).isLessThanOrEqualTo(1 << 20);
+    }
+
+    @Test
+    void falsePositiveRate_isLimitedByMemory() {
+        LongRangeSet rangeSet = randomRangeSet(new Random(3), Long.MAX_VALUE / 2);
+
+        LongRangeFilter filter = LongRangeFilter.of(rangeSet, 0.0, 64);
+
+        assertThat(filter.memoryBytes()).isLessThanOrEqualTo(64);
+        assertThat(filter.falsePositiveRate()).isBetween(0.0, 1.0);
+        assertThat(filter.contains(rangeSet.min(0))).isTrue();
+    }
+
+    @Test
+    void falsePositiveRate_ofExactFilter() {
+        LongRangeSet rangeSet = LongRangeSet.of(RangeSet.of(
+                LongRange.between(0L, 63L),
+                LongRange.between(128L, 191L)));
+
+        LongRangeFilter filter = LongRangeFilter.of(rangeSet, 0.0, 1024);
+
+        assertThat(filter.shift()).isEqualTo(6);
+        assertThat(filter.falsePositiveRate()).isZero();
+        assertThat(filter.mightContain(100)).isFalse();
+    }
+
+    @Test
+    void update_rebuildsTouchedBlocks() {
+        Random random = new Random(23);
+        LongRangeSet rangeSet = randomRangeSet(random, 100_000L);
+        LongRangeFilter filter = LongRangeFilter.of(rangeSet, 0.05, 1 << 16);
+
+        for (int round = 0; round < 20; round++) {
+            long min = rangeSet.min(0) + random.nextInt(90_000);
+            Range<Long> change = LongRange.between(min, min + random.nextInt(500));
+            rangeSet = LongRangeSet.of(round % 2 == 0 ? rangeSet.remove(change) : rangeSet.add(change));
+            filter.update(rangeSet);
+
+            LongRangeFilter rebuilt = LongRangeFilter.of(rangeSet, 0.05, 1 << 16);
+            for (long value = -10; value < 101_000L; value += 7) {
+                assertThat(filter.contains(value)).isEqualTo(rangeSet.contains(value));
+                if (filter.shift() == rebuilt.shift()) {
+                    assertThat(filter.mightContain(value)).isEqualTo(rebuilt.mightContain(value));
+                }
+            }
+        }
+    }
+
+    private static LongRangeSet randomRangeSet(Random random, long bound) {
+        List<Range<Long>> ranges = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long min = Math.floorMod(random.nextLong(), bound);
+            ranges.add(LongRange.between(min, min + random.nextInt(2_000)));
+        }
+        return LongRangeSet.of(RangeSet.of(ranges));
+    }
+}
@@ -0,0 +1,88 @@
+package org.repozoo.commons.range;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.repozoo.commons.range.factories.LongRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link LongRangeSet#classify(long[], int[])} and {@link LongRangeSet#mask(long[], long[])}
+ * on unordered values, running the scalar kernel and the <code>jdk.incubator.vector</code> kernel in separate forks.<br>
+ * Run {@link #main(String[])} on the test classpath, see {@link GuavaRangeSetsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LongRangeSetBenchmark {
+
+    @Param({"4", "16", "64", "256"})
+    int rangeCount;
+
+    private LongRangeSet longRangeSet;
+    private long[] values;
+    private int[] rangeIndexes;
+    private long[] bits;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        List<Range<Long>> ranges = new ArrayList<>();
+        for (int i = 0; i < rangeCount; i++) {
+            ranges.add(LongRange.between(i * 100L, i * 100L + random.nextInt(60)));
+        }
+        longRangeSet = LongRangeSet.of(RangeSet.of(ranges));
+        values = random.longs(4096, 0, rangeCount * 100L).toArray();
+        rangeIndexes = new int[values.length];
+        bits = new long[values.length / Long.SIZE];
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dorg.repozoo.commons.range.vector=false")
+    public int[] classifyScalar() {
+        longRangeSet.classify(values, rangeIndexes);
+        return rangeIndexes;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public int[] classifyVector() {
+        longRangeSet.classify(values, rangeIndexes);
+        return rangeIndexes;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dorg.repozoo.commons.range.vector=false")
+    public long[] maskScalar() {
+        longRangeSet.mask(values, bits);
+        return bits;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public long[] maskVector() {
+        longRangeSet.mask(values, bits);
+        return bits;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LongRangeSetBenchmark.class.getSimpleName()).build()).run();
+    }
+}
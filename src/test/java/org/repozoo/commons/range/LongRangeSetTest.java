@@ -0,0 +1,152 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+import org.repozoo.commons.range.factories.LocalDateRange;
+import org.repozoo.commons.range.factories.LongRange;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongRangeSetTest {
+
+    @Test
+    void of_mapsAndMergesRanges() {
+        LongRangeSet longRangeSet = LongRangeSet.of(RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(5, 6)), Integer::longValue);
+
+        assertThat(longRangeSet.getRanges()).containsExactly(
+                LongRange.between(1L, 3L),
+                LongRange.between(5L, 6L));
+        assertThat(longRangeSet.rangeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void indexOf() {
+        LongRangeSet longRangeSet = LongRangeSet.of(RangeSet.of(
+                LongRange.between(10L, 20L),
+                LongRange.between(30L, 40L)));
+
+        assertThat(longRangeSet.indexOf(5)).isEqualTo(-1);
+        assertThat(longRangeSet.indexOf(10)).isZero();
+        assertThat(longRangeSet.indexOf(25)).isEqualTo(-2);
+        assertThat(longRangeSet.indexOf(40)).isEqualTo(1);
+        assertThat(longRangeSet.indexOf(41)).isEqualTo(-3);
+        assertThat(longRangeSet.contains(Long.valueOf(35))).isTrue();
+    }
+
+    @Test
+    void containsAll_int() {
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(7, 9),
+                IntRange.between(20, 30));
+
+        assertThat(IntRange.containsAll(rangeSet, new int[]{0, 1, 4, 9, 25, 31}).stream()).containsExactly(1, 3, 4);
+        assertThat(IntRange.containsAll(rangeSet, new int[]{25, 0, 9, 1}).stream()).containsExactly(0, 2, 3);
+        assertThat(IntRange.bucketize(rangeSet, new int[]{0, 2, 8, 30, 31})).containsExactly(-1, 0, 1, 2, -1);
+    }
+
+    @Test
+    void containsAll_epochDays() {
+        LocalDate jan1 = LocalDate.parse("2022-01-01");
+        RangeSet<LocalDate> rangeSet = RangeSet.of(
+                LocalDateRange.between(jan1, jan1.plusDays(4)),
+                LocalDateRange.between(jan1.plusDays(10), jan1.plusDays(12)));
+        long[] epochDays = {
+                jan1.minusDays(1).toEpochDay(),
+                jan1.toEpochDay(),
+                jan1.plusDays(5).toEpochDay(),
+                jan1.plusDays(12).toEpochDay()};
+
+        assertThat(LocalDateRange.containsAll(rangeSet, epochDays).stream()).containsExactly(1, 3);
+        assertThat(LocalDateRange.bucketize(rangeSet, epochDays)).containsExactly(-1, 0, -1, 1);
+    }
+
+    @Test
+    void classify_matchesIndexOf() {
+        LongRangeSet longRangeSet = LongRangeSet.of(RangeSet.of(
+                LongRange.between(-50L, -10L),
+                LongRange.between(0L, 0L),
+                LongRange.between(5L, 17L),
+                LongRange.between(30L, 99L)));
+        int[] values = new Random(42).ints(1000, -100, 150).toArray();
+        int[] rangeIndex = new int[values.length];
+
+        longRangeSet.classify(values, rangeIndex);
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(rangeIndex[i]).isEqualTo(Math.max(longRangeSet.indexOf(values[i]), -1));
+        }
+    }
+
+    @Test
+    void classifyAndMask_matchIndexOf_forFewAndManyRanges() {
+        Random random = new Random(11);
+        for (int rangeCount : new int[]{1, 3, 24, 25, 300}) {
+            List<Range<Long>> ranges = new ArrayList<>();
+            for (int i = 0; i < rangeCount; i++) {
+                ranges.add(LongRange.between(i * 10L, i * 10L + random.nextInt(8)));
+            }
+            ranges.add(LongRange.between(Long.MAX_VALUE - 1, Long.MAX_VALUE));
+            LongRangeSet longRangeSet = LongRangeSet.of(RangeSet.of(ranges));
+            long[] values = random.longs(1001, -20, rangeCount * 10L + 20).toArray();
+            values[0] = Long.MIN_VALUE;
+            values[1] = Long.MAX_VALUE;
+            int[] rangeIndex = new int[values.length];
+            long[] bits = new long[16];
+
+            longRangeSet.classify(values, rangeIndex);
+            longRangeSet.mask(values, bits);
+
+            for (int i = 0; i < values.length; i++) {
+                assertThat(rangeIndex[i]).isEqualTo(Math.max(longRangeSet.indexOf(values[i]), -1));
+                assertThat((bits[i / Long.SIZE] & (1L << (i % Long.SIZE))) != 0).isEqualTo(rangeIndex[i] >= 0);
+            }
+        }
+    }
+
+    @Test
+    void mask_matchesContains() {
+        LongRangeSet longRangeSet = LongRangeSet.of(RangeSet.of(
+                LongRange.between(5L, 17L),
+                LongRange.between(30L, 99L)));
+        long[] values = new Random(7).longs(130, 0, 120).toArray();
+        long[] bits = new long[3];
+
+        longRangeSet.mask(values, bits);
+
+        for (int i = 0; i < values.length; i++) {
+            boolean isSet = (bits[i / Long.SIZE] & (1L << (i % Long.SIZE))) != 0;
+            assertThat(isSet).isEqualTo(longRangeSet.contains(values[i]));
+        }
+        assertThatThrownBy(() -> longRangeSet.mask(values, new long[2])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void classify_emptySet() {
+        int[] rangeIndex = new int[2];
+
+        LongRangeSet.of(RangeSet.empty()).classify(new int[]{1, 2}, rangeIndex);
+
+        assertThat(rangeIndex).containsExactly(-1, -1);
+    }
+
+    @Test
+    void forEachLongChunk() {
+        LongRangeSet longRangeSet = LongRangeSet.of(RangeSet.of(
+                LongRange.between(1L, 4L),
+                LongRange.between(Long.MAX_VALUE - 1, Long.MAX_VALUE)));
+        List<long[]> chunks = new ArrayList<>();
+
+        longRangeSet.forEachLongChunk(4, chunks::add);
+
+        assertThat(chunks).containsExactly(new long[]{1, 2, 3, 4}, new long[]{Long.MAX_VALUE - 1, Long.MAX_VALUE});
+    }
+}
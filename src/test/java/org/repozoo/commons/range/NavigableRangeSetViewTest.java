@@ -0,0 +1,92 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+import org.repozoo.commons.range.factories.LocalDateRange;
+
+import java.time.LocalDate;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NavigableRangeSetViewTest {
+
+    private static final RangeSet<Integer> RANGE_SET = RangeSet.of(
+            IntRange.between(1, 3), IntRange.between(7, 9), IntRange.between(20, 25));
+
+    @Test
+    void navigation() {
+        NavigableSet<Integer> set = RANGE_SET.asNavigableSet();
+
+        assertThat(set).containsExactly(1, 2, 3, 7, 8, 9, 20, 21, 22, 23, 24, 25);
+        assertThat(set.size()).isEqualTo(12);
+        assertThat(set.contains(8)).isTrue();
+        assertThat(set.contains(10)).isFalse();
+        assertThat(set.floor(10)).isEqualTo(9);
+        assertThat(set.ceiling(10)).isEqualTo(20);
+        assertThat(set.higher(3)).isEqualTo(7);
+        assertThat(set.higher(2)).isEqualTo(3);
+        assertThat(set.lower(7)).isEqualTo(3);
+        assertThat(set.lower(1)).isNull();
+        assertThat(set.higher(25)).isNull();
+        assertThat(set.first()).isEqualTo(1);
+        assertThat(set.last()).isEqualTo(25);
+        assertThat(set.descendingSet()).containsExactly(25, 24, 23, 22, 21, 20, 9, 8, 7, 3, 2, 1);
+        assertThatThrownBy(set::pollFirst).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> set.add(5)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void subViews() {
+        NavigableSet<Integer> set = RANGE_SET.asNavigableSet();
+
+        assertThat(set.subSet(3, 21)).containsExactly(3, 7, 8, 9, 20);
+        assertThat(set.subSet(3, false, 21, true)).containsExactly(7, 8, 9, 20, 21);
+        assertThat(set.headSet(8)).containsExactly(1, 2, 3, 7);
+        assertThat(set.tailSet(9, false).size()).isEqualTo(6);
+        assertThat(set.subSet(4, 6)).isEmpty();
+        assertThat(set.subSet(4, 6).size()).isZero();
+        assertThat(set.tailSet(25, false)).isEmpty();
+        assertThat(set.subSet(2, 22).subSet(0, 30).last()).isEqualTo(21);
+        assertThat(set.descendingSet().headSet(8)).containsExactly(25, 24, 23, 22, 21, 20, 9);
+        assertThat(set.descendingSet().subSet(21, true, 2, false)).containsExactly(21, 20, 9, 8, 7, 3);
+        assertThatThrownBy(() -> set.subSet(5, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void size_isComputedWithoutIteration() {
+        LocalDate from = LocalDate.of(2000, 1, 1);
+        NavigableSet<LocalDate> days = RangeSet.of(LocalDateRange.between(from, from.plusYears(1000))).asNavigableSet();
+
+        assertThat(days.size()).isEqualTo(365244);
+        assertThat(days.subSet(from.plusDays(10), from.plusDays(20)).size()).isEqualTo(10);
+        assertThat(RangeSet.of(IntRange.between(Integer.MIN_VALUE, Integer.MAX_VALUE)).asNavigableSet().size())
+                .isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void behavesLikeTreeSet() {
+        TreeSet<Integer> expected = new TreeSet<>();
+        RANGE_SET.forEachValue(expected::add);
+        NavigableSet<Integer> set = RANGE_SET.asNavigableSet();
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            int a = random.nextInt(30) - 2;
+            int b = a + random.nextInt(10);
+            boolean ai = random.nextBoolean();
+            boolean bi = random.nextBoolean();
+            assertThat(set.subSet(a, ai, b, bi)).containsExactlyElementsOf(expected.subSet(a, ai, b, bi));
+            assertThat(set.descendingSet().subSet(b, bi, a, ai)).containsExactlyElementsOf(expected.descendingSet().subSet(b, bi, a, ai));
+            assertThat(set.subSet(a, ai, b, bi).size()).isEqualTo(expected.subSet(a, ai, b, bi).size());
+            assertThat(set.subSet(a, ai, b, bi).descendingSet().higher(b)).isEqualTo(expected.subSet(a, ai, b, bi).descendingSet().higher(b));
+            assertThat(set.floor(a)).isEqualTo(expected.floor(a));
+            assertThat(set.lower(a)).isEqualTo(expected.lower(a));
+            assertThat(set.ceiling(a)).isEqualTo(expected.ceiling(a));
+            assertThat(set.higher(a)).isEqualTo(expected.higher(a));
+        }
+        assertThat(set).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,98 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentRangeSetTest {
+
+    @Test
+    void add() {
+        PersistentRangeSet<Integer> rangeSet = PersistentRangeSet.of(RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(7, 9),
+                IntRange.between(12, 15)));
+
+        assertThat(rangeSet.add(IntRange.between(4, 6)).getRanges()).containsExactly(
+                IntRange.between(1, 9),
+                IntRange.between(12, 15));
+        assertThat(rangeSet.add(IntRange.between(8, 20)).getRanges()).containsExactly(
+                IntRange.between(1, 3),
+                IntRange.between(7, 20));
+        assertThat(rangeSet.add(IntRange.between(5, 5)).getRanges()).containsExactly(
+                IntRange.between(1, 3),
+                IntRange.between(5, 5),
+                IntRange.between(7, 9),
+                IntRange.between(12, 15));
+    }
+
+    @Test
+    void remove() {
+        PersistentRangeSet<Integer> rangeSet = PersistentRangeSet.of(RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(7, 9),
+                IntRange.between(12, 15)));
+
+        assertThat(rangeSet.remove(IntRange.between(2, 13)).getRanges()).containsExactly(
+                IntRange.between(1, 1),
+                IntRange.between(14, 15));
+        assertThat(rangeSet.remove(IntRange.between(8, 8)).getRanges()).containsExactly(
+                IntRange.between(1, 3),
+                IntRange.between(7, 7),
+                IntRange.between(9, 9),
+                IntRange.between(12, 15));
+        assertThat(rangeSet.remove(IntRange.between(4, 6))).isSameAs(rangeSet);
+    }
+
+    @Test
+    void olderVersionsRemainUnchanged() {
+        Random random = new Random(11);
+        List<PersistentRangeSet<Integer>> versions = new ArrayList<>();
+        List<RangeSet<Integer>> expected = new ArrayList<>();
+        PersistentRangeSet<Integer> persistent = PersistentRangeSet.empty();
+        RangeSet<Integer> reference = RangeSet.empty();
+        for (int i = 0; i < 300; i++) {
+            int min = random.nextInt(500);
+            Range<Integer> range = IntRange.between(min, min + random.nextInt(20));
+            if (random.nextInt(3) == 0) {
+                persistent = persistent.remove(range);
+                reference = reference.remove(range);
+            } else {
+                persistent = persistent.add(range);
+                reference = reference.add(range);
+            }
+            versions.add(persistent);
+            expected.add(reference);
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            assertThat(versions.get(i).getRanges()).containsExactlyElementsOf(expected.get(i).getRanges());
+        }
+        for (int value = 0; value < 520; value++) {
+            assertThat(persistent.contains(Integer.valueOf(value))).isEqualTo(reference.contains(Integer.valueOf(value)));
+        }
+    }
+
+    @Test
+    void equals_comparesRanges() {
+        PersistentRangeSet<Integer> added = PersistentRangeSet.<Integer>empty()
+                .add(IntRange.between(1, 3))
+                .add(IntRange.between(7, 9));
+        PersistentRangeSet<Integer> removed = PersistentRangeSet.of(RangeSet.of(IntRange.between(1, 9)))
+                .remove(IntRange.between(4, 6));
+        IndexedRangeSet<Integer> indexed = IndexedRangeSet.of(RangeSet.of(IntRange.between(1, 3), IntRange.between(7, 9)));
+
+        assertThat(added).isEqualTo(removed).hasSameHashCodeAs(removed);
+        assertThat(added).isEqualTo(indexed).hasSameHashCodeAs(indexed);
+        assertThat(indexed).isEqualTo(added);
+        assertThat(added).isNotEqualTo(added.remove(IntRange.between(9, 9)));
+        assertThat(added).isEqualTo(RangeSet.of(IntRange.between(1, 3), IntRange.between(7, 9)));
+        assertThat(added).isNotEqualTo((RangeSet<Integer>) added::streamRanges);
+    }
+
+}
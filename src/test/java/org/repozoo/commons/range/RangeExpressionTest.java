@@ -0,0 +1,77 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RangeExpressionTest {
+
+    private final RangeSet<Integer> a = RangeSet.of(IntRange.between(1, 10), IntRange.between(20, 30));
+    private final RangeSet<Integer> b = RangeSet.of(IntRange.between(11, 12), IntRange.between(40, 45));
+    private final RangeSet<Integer> c = RangeSet.of(IntRange.between(5, 6), IntRange.between(25, 42));
+
+    @Test
+    void evaluate() {
+        RangeExpression<Integer> expression = RangeExpression.of(a).add(b).remove(c).intersection(IntRange.between(0, 43));
+
+        assertThat(expression.getRanges()).containsExactly(
+                IntRange.between(1, 4),
+                IntRange.between(7, 12),
+                IntRange.between(20, 24),
+                IntRange.between(43, 43));
+        assertThat(expression.evaluate().getRanges()).containsExactlyElementsOf(expression.getRanges());
+    }
+
+    @Test
+    void complement() {
+        RangeExpression<Integer> gaps = RangeExpression.of(a).complement().intersection(IntRange.between(0, 35));
+
+        assertThat(gaps.getRanges()).containsExactly(
+                IntRange.between(0, 0),
+                IntRange.between(11, 19),
+                IntRange.between(31, 35));
+        assertThatThrownBy(() -> RangeExpression.of(a).complement().getRanges()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void isEmpty_intersects_contains() {
+        assertThat(RangeExpression.of(a).intersection(b).isEmpty()).isTrue();
+        assertThat(RangeExpression.of(a).remove(c).isEmpty()).isFalse();
+        assertThat(RangeExpression.of(a).complement().isEmpty()).isFalse();
+        assertThat(RangeExpression.of(a).add(b).intersects(c)).isTrue();
+        assertThat(RangeExpression.of(b).remove(c).intersects(IntRange.between(40, 42))).isFalse();
+        assertThat(RangeExpression.of(a).remove(c).contains(Integer.valueOf(5))).isFalse();
+        assertThat(RangeExpression.of(a).remove(c).contains(Integer.valueOf(7))).isTrue();
+        assertThat(RangeExpression.of(a).complement().contains(Integer.valueOf(15))).isTrue();
+    }
+
+    @Test
+    void matchesEagerOperations() {
+        Random random = new Random(9);
+        for (int i = 0; i < 30; i++) {
+            RangeSet<Integer> x = randomRangeSet(random);
+            RangeSet<Integer> y = randomRangeSet(random);
+            RangeSet<Integer> z = randomRangeSet(random);
+
+            assertThat(RangeExpression.of(x).add(y).remove(z).getRanges())
+                    .containsExactlyElementsOf(x.add(y).remove(z).getRanges());
+            assertThat(RangeExpression.of(x).intersection(y).add(z).getRanges())
+                    .containsExactlyElementsOf(x.intersection(y).add(z).getRanges());
+        }
+    }
+
+    private static RangeSet<Integer> randomRangeSet(Random random) {
+        List<Range<Integer>> ranges = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            int min = random.nextInt(200);
+            ranges.add(IntRange.between(min, min + random.nextInt(12)));
+        }
+        return RangeSet.of(ranges);
+    }
+}
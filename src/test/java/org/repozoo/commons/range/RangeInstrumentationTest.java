@@ -0,0 +1,139 @@
+package org.repozoo.commons.range;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeInstrumentationTest {
+
+    @AfterEach
+    void disable() {
+        RangeInstrumentation.disable();
+    }
+
+    @Test
+    void metrics_recordOperations() {
+        RangeStatistics statistics = new RangeStatistics();
+        RangeInstrumentation.enableMetrics(statistics);
+
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(2, 5),
+                IntRange.between(10, 12));
+
+        assertThat(statistics.count(RangeMetrics.Operation.NORMALIZE)).isEqualTo(1);
+        assertThat(statistics.inputRanges(RangeMetrics.Operation.NORMALIZE)).isEqualTo(3);
+        assertThat(statistics.outputRanges(RangeMetrics.Operation.NORMALIZE)).isEqualTo(2);
+        assertThat(sum(statistics.durationHistogram(RangeMetrics.Operation.NORMALIZE))).isEqualTo(1);
+
+        RangeSet<Integer> removed = rangeSet.remove(IntRange.between(3, 3));
+        rangeSet.intersection(IntRange.between(2, 11));
+        rangeSet.add(IntRange.between(20, 21));
+        LongRangeSet.of(RangeSet.of(IntRange.between(1, 2)), Integer::longValue).containsAll(new int[]{1, 2, 3});
+
+        assertThat(statistics.count(RangeMetrics.Operation.REMOVE)).isEqualTo(1);
+        assertThat(statistics.inputRanges(RangeMetrics.Operation.REMOVE)).isEqualTo(2);
+        assertThat(statistics.outputRanges(RangeMetrics.Operation.REMOVE)).isEqualTo(removed.getRanges().size());
+        assertThat(statistics.count(RangeMetrics.Operation.INTERSECTION)).isEqualTo(1);
+        assertThat(statistics.count(RangeMetrics.Operation.ADD)).isEqualTo(1);
+        assertThat(statistics.outputRanges(RangeMetrics.Operation.ADD)).isEqualTo(3);
+        assertThat(statistics.values(RangeMetrics.Operation.CONTAINS_ALL)).isEqualTo(3);
+        assertThat(statistics.hits(RangeMetrics.Operation.CONTAINS_ALL)).isEqualTo(2);
+    }
+
+    @Test
+    void metrics_recordOnlyTheOperationCalled() {
+        RangeSet<Integer> x = RangeSet.of(IntRange.between(1, 5), IntRange.between(10, 15), IntRange.between(20, 25));
+        RangeSet<Integer> y = RangeSet.of(IntRange.between(3, 12), IntRange.between(22, 22));
+        RangeStatistics statistics = new RangeStatistics();
+        RangeInstrumentation.enableMetrics(statistics);
+
+        x.intersection(y);
+        x.remove(y);
+
+        assertThat(statistics.count(RangeMetrics.Operation.INTERSECTION)).isEqualTo(1);
+        assertThat(statistics.inputRanges(RangeMetrics.Operation.INTERSECTION)).isEqualTo(3);
+        assertThat(statistics.outputRanges(RangeMetrics.Operation.INTERSECTION)).isEqualTo(3);
+        assertThat(statistics.count(RangeMetrics.Operation.REMOVE)).isEqualTo(1);
+        assertThat(statistics.outputRanges(RangeMetrics.Operation.REMOVE)).isEqualTo(4);
+        assertThat(statistics.count(RangeMetrics.Operation.NORMALIZE)).isZero();
+        assertThat(statistics.count(RangeMetrics.Operation.ADD)).isZero();
+    }
+
+    @Test
+    void metrics_recordBulkQueries() {
+        RangeStatistics statistics = new RangeStatistics();
+        RangeInstrumentation.enableMetrics(statistics);
+        RangeSet<Integer> rangeSet = RangeSet.of(IntRange.between(1, 3), IntRange.between(7, 8));
+        LongRangeSet longs = LongRangeSet.of(rangeSet, Integer::longValue);
+
+        rangeSet.bucketize(List.of(0, 2, 7, 9));
+        longs.classify(new int[]{3, 9, 1}, new int[3]);
+        longs.mask(new long[]{8, 4, 7, 2}, new long[1]);
+        List<Integer> filtered = rangeSet.filter(Stream.of(1, 4, 8, 10, 12)).toList();
+
+        assertThat(statistics.count(RangeMetrics.Operation.BUCKETIZE)).isEqualTo(2);
+        assertThat(statistics.values(RangeMetrics.Operation.BUCKETIZE)).isEqualTo(7);
+        assertThat(statistics.hits(RangeMetrics.Operation.BUCKETIZE)).isEqualTo(4);
+        assertThat(statistics.values(RangeMetrics.Operation.CONTAINS_ALL)).isEqualTo(4);
+        assertThat(statistics.hits(RangeMetrics.Operation.CONTAINS_ALL)).isEqualTo(3);
+        assertThat(filtered).containsExactly(1, 8);
+        assertThat(statistics.count(RangeMetrics.Operation.FILTER)).isEqualTo(1);
+        assertThat(statistics.values(RangeMetrics.Operation.FILTER)).isEqualTo(5);
+        assertThat(statistics.hits(RangeMetrics.Operation.FILTER)).isEqualTo(2);
+    }
+
+    @Test
+    void disabled_recordsNothing() {
+        RangeStatistics statistics = new RangeStatistics();
+        RangeInstrumentation.enableMetrics(statistics);
+        RangeInstrumentation.disable();
+
+        RangeSet.of(IntRange.between(1, 3)).remove(IntRange.between(2, 2));
+
+        assertThat(RangeInstrumentation.begin()).isEqualTo(RangeInstrumentation.DISABLED);
+        assertThat(statistics.count(RangeMetrics.Operation.NORMALIZE)).isZero();
+        assertThat(statistics.count(RangeMetrics.Operation.REMOVE)).isZero();
+    }
+
+    @Test
+    void events_areCommittedToJfr() throws Exception {
+        Path file = Files.createTempFile("range", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.repozoo.commons.range.RangeOperation");
+            recording.start();
+            RangeInstrumentation.enableEvents();
+
+            RangeSet.of(IntRange.between(1, 3), IntRange.between(3, 8)).remove(IntRange.between(5, 5));
+
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        assertThat(events)
+                .extracting(event -> event.getString("operation"))
+                .containsExactly("NORMALIZE", "REMOVE");
+        assertThat(events.get(0).getLong("inputRanges")).isEqualTo(2);
+        assertThat(events.get(0).getLong("outputRanges")).isEqualTo(1);
+    }
+
+    private static long sum(long[] histogram) {
+        long sum = 0;
+        for (long count : histogram) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,65 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeJoinTest {
+
+    @Test
+    void join() {
+        List<Range<Integer>> left = List.of(IntRange.between(1, 5), IntRange.between(8, 9));
+        List<Range<Integer>> right = List.of(IntRange.between(4, 8), IntRange.between(10, 12));
+
+        List<RangeJoin.Match<Range<Integer>, Range<Integer>, Integer>> matches = RangeJoin
+                .join(left, Function.identity(), right, Function.identity())
+                .collect(Collectors.toList());
+
+        assertThat(matches).containsExactlyInAnyOrder(
+                new RangeJoin.Match<>(IntRange.between(1, 5), IntRange.between(4, 8), IntRange.between(4, 5)),
+                new RangeJoin.Match<>(IntRange.between(8, 9), IntRange.between(4, 8), IntRange.between(8, 8)));
+    }
+
+    @Test
+    void join_sameMin_isReportedOnce() {
+        List<Range<Integer>> left = List.of(IntRange.between(1, 3));
+        List<Range<Integer>> right = List.of(IntRange.between(1, 2));
+
+        assertThat(RangeJoin.join(left, Function.identity(), right, Function.identity()))
+                .containsExactly(new RangeJoin.Match<>(IntRange.between(1, 3), IntRange.between(1, 2), IntRange.between(1, 2)));
+    }
+
+    @Test
+    void join_matchesNestedLoop() {
+        Random random = new Random(3);
+        List<Range<Integer>> left = randomRanges(random, 300);
+        List<Range<Integer>> right = randomRanges(random, 200);
+        List<String> expected = new ArrayList<>();
+        left.forEach(l -> right.stream()
+                .filter(l::intersects)
+                .forEach(r -> expected.add(l + "x" + r + "=" + l.intersection(r).getRanges())));
+
+        assertThat(RangeJoin.join(left, Function.identity(), right, Function.identity())
+                .map(m -> m.left() + "x" + m.right() + "=" + List.of(m.intersection())))
+                .containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(RangeJoin.joinParallel(left, Function.identity(), right, Function.identity())
+                .map(m -> m.left() + "x" + m.right() + "=" + List.of(m.intersection())))
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private static List<Range<Integer>> randomRanges(Random random, int count) {
+        List<Range<Integer>> ranges = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int min = random.nextInt(1000);
+            ranges.add(IntRange.between(min, min + random.nextInt(30)));
+        }
+        return ranges;
+    }
+}
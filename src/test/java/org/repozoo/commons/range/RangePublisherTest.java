@@ -0,0 +1,172 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+import org.repozoo.commons.range.factories.LocalDateTimeRange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangePublisherTest {
+
+    private static final RangeSet<Integer> RANGE_SET = RangeSet.of(IntRange.between(1, 3), IntRange.between(7, 8));
+
+    @Test
+    void values_emitOnlyRequested() {
+        Recorder<Integer> recorder = new Recorder<>();
+        RangePublisher.values(RANGE_SET).subscribe(recorder);
+
+        recorder.subscription.request(2);
+        assertThat(recorder.items).containsExactly(1, 2);
+        assertThat(recorder.completed).isFalse();
+
+        recorder.subscription.request(3);
+        assertThat(recorder.items).containsExactly(1, 2, 3, 7, 8);
+        assertThat(recorder.completed).isTrue();
+    }
+
+    @Test
+    void ranges_andChunks() {
+        Recorder<Range<Integer>> ranges = new Recorder<>();
+        RangePublisher.ranges(RANGE_SET).subscribe(ranges);
+        ranges.subscription.request(Long.MAX_VALUE);
+
+        Recorder<List<Integer>> chunks = new Recorder<>();
+        RangePublisher.valueChunks(RANGE_SET, 2).subscribe(chunks);
+        chunks.subscription.request(10);
+
+        assertThat(ranges.items).containsExactly(IntRange.between(1, 3), IntRange.between(7, 8));
+        assertThat(ranges.completed).isTrue();
+        assertThat(chunks.items).containsExactly(List.of(1, 2), List.of(3, 7), List.of(8));
+    }
+
+    @Test
+    void cancel_stopsUnboundedDemand_withoutComputingRemainingValues() {
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        RangeSet<LocalDateTime> nanos = RangeSet.of(LocalDateTimeRange.between(start, start.plusYears(10)));
+        Recorder<LocalDateTime> recorder = new Recorder<>() {
+            @Override
+            public void onNext(LocalDateTime item) {
+                super.onNext(item);
+                if (items.size() == 1000) {
+                    subscription.cancel();
+                }
+            }
+        };
+        RangePublisher.values(nanos).subscribe(recorder);
+
+        recorder.subscription.request(Long.MAX_VALUE);
+
+        assertThat(recorder.items).hasSize(1000).startsWith(start);
+        assertThat(recorder.completed).isFalse();
+    }
+
+    @Test
+    void requestFromOnNext_doesNotRecurse() {
+        RangeSet<Integer> large = RangeSet.of(IntRange.between(0, 99_999));
+        Recorder<Integer> recorder = new Recorder<>() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        RangePublisher.values(large).subscribe(recorder);
+
+        recorder.subscription.request(1);
+
+        assertThat(recorder.items).hasSize(100_000);
+        assertThat(recorder.completed).isTrue();
+    }
+
+    @Test
+    void nonPositiveRequest_signalsError() {
+        Recorder<Integer> recorder = new Recorder<>();
+        RangePublisher.values(RANGE_SET).subscribe(recorder);
+
+        recorder.subscription.request(0);
+        recorder.subscription.request(5);
+
+        assertThat(recorder.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(recorder.items).isEmpty();
+    }
+
+    @Test
+    void nonPositiveRequestFromOnNext_signalsErrorAfterOnNextReturned() {
+        boolean[] isInOnNext = {false};
+        boolean[] isErrorInOnNext = {false};
+        Recorder<Integer> recorder = new Recorder<>() {
+            @Override
+            public void onNext(Integer item) {
+                isInOnNext[0] = true;
+                super.onNext(item);
+                subscription.request(-1);
+                isInOnNext[0] = false;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                isErrorInOnNext[0] = isInOnNext[0];
+                super.onError(throwable);
+            }
+        };
+        RangePublisher.values(RANGE_SET).subscribe(recorder);
+
+        recorder.subscription.request(3);
+
+        assertThat(recorder.items).containsExactly(1);
+        assertThat(recorder.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(isErrorInOnNext[0]).isFalse();
+    }
+
+    @Test
+    void concurrentRequests_emitEachValueOnceInOrder() throws InterruptedException {
+        RangeSet<Integer> large = RangeSet.of(IntRange.between(0, 9_999));
+        Recorder<Integer> recorder = new Recorder<>();
+        RangePublisher.values(large).subscribe(recorder);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 1000).forEach(i -> executor.submit(() -> recorder.subscription.request(10)));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(recorder.items).isEqualTo(IntStream.range(0, 10_000).boxed().toList());
+        assertThat(recorder.completed).isTrue();
+    }
+
+    private static class Recorder<T> implements Flow.Subscriber<T> {
+
+        final List<T> items = new ArrayList<>();
+        volatile Flow.Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeSetCacheTest {
+
+    private final RangeSet<Integer> season = RangeSet.of(IntRange.between(1, 10), IntRange.between(20, 30));
+
+    @Test
+    void intersection_isCachedByStructure() {
+        RangeSetCache<Integer> cache = new RangeSetCache<>(10);
+
+        RangeSet<Integer> first = cache.intersection(season, IntRange.between(5, 25));
+        RangeSet<Integer> second = cache.intersection(RangeSet.of(IntRange.between(1, 10), IntRange.between(20, 30)), IntRange.between(5, 25));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getRanges()).containsExactly(IntRange.between(5, 10), IntRange.between(20, 25));
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void operationsAreCachedSeparately() {
+        RangeSetCache<Integer> cache = new RangeSetCache<>(10);
+
+        assertThat(cache.add(season, IntRange.between(11, 12)).getRanges())
+                .containsExactly(IntRange.between(1, 12), IntRange.between(20, 30));
+        assertThat(cache.remove(season, IntRange.between(11, 12)).getRanges())
+                .containsExactly(IntRange.between(1, 10), IntRange.between(20, 30));
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.hits()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        RangeSetCache<Integer> cache = new RangeSetCache<>(2);
+
+        cache.remove(season, IntRange.singleton(1));
+        cache.remove(season, IntRange.singleton(2));
+        cache.remove(season, IntRange.singleton(1));
+        cache.remove(season, IntRange.singleton(3));
+        cache.remove(season, IntRange.singleton(1));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentAccess() {
+        RangeSetCache<Integer> cache = new RangeSetCache<>(5);
+
+        IntStream.range(0, 1000).parallel().forEach(i -> assertThat(cache.intersection(season, IntRange.between(i % 8, 25)).isEmpty()).isFalse());
+
+        assertThat(cache.hits() + cache.misses()).isEqualTo(1000);
+        assertThat(cache.size()).isLessThanOrEqualTo(5);
+    }
+}
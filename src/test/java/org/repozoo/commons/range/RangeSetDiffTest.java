@@ -0,0 +1,61 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeSetDiffTest {
+
+    @Test
+    void diff() {
+        RangeSet<Integer> rs1 = RangeSet.of(IntRange.between(1, 5), IntRange.between(7, 10));
+        RangeSet<Integer> rs2 = IntRange.between(3, 8);
+
+        RangeSetDiff<Integer> diff = rs1.diff(rs2);
+
+        assertThat(diff.added().getRanges()).containsExactly(IntRange.between(6, 6));
+        assertThat(diff.removed().getRanges()).containsExactly(IntRange.between(1, 2), IntRange.between(9, 10));
+        assertThat(rs1.diff(rs1).isEmpty()).isTrue();
+    }
+
+    @Test
+    void diff_adjacentRanges() {
+        RangeSet<Integer> rs1 = RangeSet.of(IntRange.between(1, 2), IntRange.between(5, 6));
+        RangeSet<Integer> rs2 = RangeSet.of(IntRange.between(1, 3), IntRange.between(4, 4));
+
+        RangeSetDiff<Integer> diff = rs1.diff(rs2);
+
+        assertThat(diff.added().getRanges()).containsExactly(IntRange.between(3, 4));
+        assertThat(diff.removed().getRanges()).containsExactly(IntRange.between(5, 6));
+    }
+
+    @Test
+    void apply_restoresOther() {
+        Random random = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            RangeSet<Integer> a = randomRangeSet(random);
+            RangeSet<Integer> b = randomRangeSet(random);
+
+            RangeSetDiff<Integer> diff = a.diff(b);
+
+            assertThat(diff.added().getRanges()).containsExactlyElementsOf(b.remove(a).getRanges());
+            assertThat(diff.removed().getRanges()).containsExactlyElementsOf(a.remove(b).getRanges());
+            assertThat(a.apply(diff).getRanges()).containsExactlyElementsOf(b.getRanges());
+            assertThat(b.apply(diff.inverse()).getRanges()).containsExactlyElementsOf(a.getRanges());
+        }
+    }
+
+    private static RangeSet<Integer> randomRangeSet(Random random) {
+        List<Range<Integer>> ranges = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int min = random.nextInt(200);
+            ranges.add(IntRange.between(min, min + random.nextInt(10)));
+        }
+        return RangeSet.of(ranges);
+    }
+}
@@ -0,0 +1,70 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.repozoo.commons.range.factories.IntRange;
+import org.repozoo.commons.range.factories.LocalDateRange;
+import org.repozoo.commons.range.factories.LongRange;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RangeSetFormatTest {
+
+    private static final RangeSet<LocalDate> DAYS = RangeSet.of(
+            LocalDateRange.between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)),
+            LocalDateRange.between(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 1)),
+            LocalDateRange.between(LocalDate.of(12024, 5, 3), LocalDate.of(12024, 5, 4)));
+
+    @Test
+    void format_andParseBack() {
+        String text = LocalDateRange.textFormat().format(DAYS);
+
+        assertThat(text).isEqualTo("2024-01-01..2024-03-31\n2024-05-01\n+12024-05-03..+12024-05-04\n");
+        assertThat(LocalDateRange.textFormat().parse(text)).isEqualTo(DAYS);
+        assertThat(LocalDateRange.textFormat().parse(CharBuffer.wrap(text))).isEqualTo(DAYS);
+    }
+
+    @Test
+    void parse_unsortedLines_areNormalized() {
+        RangeSet<Integer> rangeSet = IntRange.textFormat().parse("8..9\r\n\n  -5..-1 \n0..2\n20");
+
+        assertThat(rangeSet.getRanges()).containsExactly(
+                IntRange.between(-5, 2), IntRange.between(8, 9), IntRange.between(20, 20));
+        assertThat(IntRange.textFormat().format(rangeSet)).isEqualTo("-5..2\n8..9\n20\n");
+    }
+
+    @Test
+    void parse_invalidLine() {
+        assertThatThrownBy(() -> LocalDateRange.textFormat().parse("2024-01-01..2024-03-31\n2024-13-01"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line: 2");
+        assertThatThrownBy(() -> IntRange.textFormat().parse("3..1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LocalDateRange.textFormat().parse("24-01-01"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void read_memoryMappedFile(@TempDir Path dir) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (long i = 0; i < 10_000; i++) {
+            text.append(i * 10).append("..").append(i * 10 + 4).append('\n');
+        }
+        Path file = dir.resolve("ranges.txt");
+        Files.writeString(file, text, StandardCharsets.US_ASCII);
+
+        RangeSet<Long> rangeSet = LongRange.textFormat().read(file);
+
+        assertThat(rangeSet.getRanges()).hasSize(10_000);
+        assertThat(rangeSet.getRanges().get(9_999)).isEqualTo(LongRange.between(99_990L, 99_994L));
+        assertThat(LongRange.textFormat().format(rangeSet)).isEqualTo(text.toString());
+    }
+}
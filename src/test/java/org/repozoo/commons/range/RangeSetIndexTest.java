@@ -0,0 +1,101 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.LocalDateRange;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeSetIndexTest {
+
+    private final LocalDate jan1 = LocalDate.parse("2022-01-01");
+
+    @Test
+    void apply_groupsUpdatesByKey() {
+        RangeSetIndex<String, LocalDate> index = new RangeSetIndex<>();
+
+        index.apply(List.of(
+                RangeSetIndex.Update.add("room1", days(1, 10)),
+                RangeSetIndex.Update.add("room2", days(5, 6)),
+                RangeSetIndex.Update.add("room1", days(20, 25)),
+                RangeSetIndex.Update.remove("room1", days(3, 4)),
+                RangeSetIndex.Update.remove("room2", days(5, 6))));
+
+        assertThat(index.get("room1").getRanges()).containsExactly(
+                LocalDateRange.between(day(1), day(2)),
+                LocalDateRange.between(day(5), day(10)),
+                LocalDateRange.between(day(20), day(25)));
+        assertThat(index.get("room2").isEmpty()).isTrue();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keysContaining() {
+        RangeSetIndex<Integer, LocalDate> index = new RangeSetIndex<>(4);
+        index.put(1, days(1, 10));
+        index.put(2, RangeSet.of(LocalDateRange.between(day(1), day(4)), LocalDateRange.between(day(6), day(10))));
+        index.put(3, days(5, 30));
+
+        assertThat(index.keysContaining(LocalDateRange.between(day(6), day(9)))).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(index.keysContaining(LocalDateRange.between(day(3), day(7)))).containsExactly(1);
+        assertThat(index.keysContaining(LocalDateRange.between(day(0), day(7)))).isEmpty();
+    }
+
+    @Test
+    void keysIntersecting_and_keysDistinctFrom() {
+        RangeSetIndex<Integer, LocalDate> index = new RangeSetIndex<>();
+        index.put(1, days(1, 2));
+        index.put(2, RangeSet.of(LocalDateRange.between(day(1), day(2)), LocalDateRange.between(day(8), day(9))));
+        index.put(3, days(4, 6));
+
+        Range<LocalDate> query = LocalDateRange.between(day(3), day(5));
+        assertThat(index.keysIntersecting(query)).containsExactly(3);
+        assertThat(index.keysDistinctFrom(query)).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void add_concurrently() {
+        RangeSetIndex<String, LocalDate> index = new RangeSetIndex<>(2);
+
+        IntStream.range(0, 200).parallel().forEach(i -> index.add("room" + (i % 3), days(i, i)));
+
+        assertThat(index.get("room0").getRanges()).hasSize(67);
+        assertThat(index.get("room1").getRanges()).hasSize(67);
+        assertThat(index.get("room2").getRanges()).hasSize(66);
+    }
+
+    @Test
+    void longBounds_answerLikeRanges() {
+        RangeSetIndex<Integer, LocalDate> index = new RangeSetIndex<>(
+                new RangeSetIndex.LongBounds<>(LocalDate::toEpochDay, LocalDate::ofEpochDay, LocalDateRange::between));
+        index.put(1, days(1, 10));
+        index.put(2, RangeSet.of(LocalDateRange.between(day(1), day(4)), LocalDateRange.between(day(6), day(10))));
+        index.put(3, days(5, 30));
+        index.apply(List.of(
+                RangeSetIndex.Update.add(4, days(40, 41)),
+                RangeSetIndex.Update.remove(3, days(20, 30)),
+                RangeSetIndex.Update.remove(4, days(40, 41))));
+
+        assertThat(index.get(2).getRanges()).containsExactly(
+                LocalDateRange.between(day(1), day(4)), LocalDateRange.between(day(6), day(10)));
+        assertThat(index.get(3).getRanges()).containsExactly(LocalDateRange.between(day(5), day(19)));
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.keysContaining(LocalDateRange.between(day(6), day(9)))).containsExactlyInAnyOrder(1, 2, 3);
+        assertThat(index.keysContaining(LocalDateRange.between(day(3), day(7)))).containsExactly(1);
+        assertThat(index.keysContaining(LocalDateRange.between(day(0), day(7)))).isEmpty();
+        assertThat(index.keysIntersecting(LocalDateRange.between(day(5), day(5)))).containsExactlyInAnyOrder(1, 3);
+        assertThat(index.keysIntersecting(LocalDateRange.between(day(11), day(12)))).containsExactly(3);
+        assertThat(index.keysDistinctFrom(LocalDateRange.between(day(20), day(30)))).containsExactlyInAnyOrder(1, 2, 3);
+    }
+
+    private LocalDate day(int i) {
+        return jan1.plusDays(i);
+    }
+
+    private RangeSet<LocalDate> days(int from, int to) {
+        return LocalDateRange.between(day(from), day(to));
+    }
+}
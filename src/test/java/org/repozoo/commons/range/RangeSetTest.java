@@ -1,8 +1,15 @@
 package org.repozoo.commons.range;
 
 import org.repozoo.commons.range.factories.IntRange;
+import org.repozoo.commons.range.factories.LocalDateRange;
+import org.repozoo.commons.range.factories.LongRange;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class RangeSetTest {
@@ -204,4 +211,113 @@ class RangeSetTest {
                 IntRange.between(91, 100)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void containsAll() {
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(7, 9),
+                IntRange.between(20, 30),
+                IntRange.between(40, 41),
+                IntRange.between(50, 60));
+
+        assertThat(rangeSet.containsAll(List.of(0, 1, 3, 4, 8, 21, 35, 41, 60, 61)).stream())
+                .containsExactly(1, 2, 4, 5, 7, 8);
+        assertThat(rangeSet.containsAll(List.of(60, 0, 41, 8, 1, 61, 35, 21)).stream())
+                .containsExactly(0, 2, 3, 4, 7);
+        assertThat(RangeSet.<Integer>empty().containsAll(List.of(1, 2)).isEmpty()).isTrue();
+    }
+
+    @Test
+    void bucketize() {
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(7, 9),
+                IntRange.between(20, 30));
+
+        assertThat(rangeSet.bucketize(List.of(0, 2, 5, 7, 9, 25, 31))).containsExactly(-1, 0, -1, 1, 1, 2, -1);
+        assertThat(rangeSet.bucketize(List.of(25, 2, 31, 8))).containsExactly(2, 0, -1, 1);
+    }
+
+    @Test
+    void filter() {
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(7, 9));
+
+        assertThat(rangeSet.filter(Stream.of(0, 1, 2, 5, 8, 10))).containsExactly(1, 2, 8);
+        assertThat(rangeSet.filter(Stream.of(8, 0, 3))).containsExactly(8, 3);
+        assertThat(rangeSet.filter(Stream.iterate(0, i -> i + 1).limit(100).parallel())).containsExactly(1, 2, 3, 7, 8, 9);
+    }
+
+    @Test
+    void contains_value() {
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 3),
+                IntRange.between(7, 9));
+
+        assertThat(rangeSet.contains(Integer.valueOf(2))).isTrue();
+        assertThat(rangeSet.contains(Integer.valueOf(5))).isFalse();
+        assertThat(rangeSet.contains(Integer.valueOf(9))).isTrue();
+    }
+
+    @Test
+    void streamValues_withStep() {
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 10),
+                IntRange.between(20, 21),
+                IntRange.between(Integer.MAX_VALUE - 2, Integer.MAX_VALUE));
+
+        assertThat(rangeSet.streamValues(4)).containsExactly(1, 5, 9, 20, Integer.MAX_VALUE - 2);
+        assertThat(rangeSet.streamValues(1).limit(12)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 20, 21);
+    }
+
+    @Test
+    void forEachChunk() {
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                IntRange.between(1, 5),
+                IntRange.between(10, 11),
+                IntRange.between(20, 20));
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<int[]> intChunks = new ArrayList<>();
+
+        rangeSet.forEachChunk(3, chunks::add);
+        IntRange.forEachIntChunk(rangeSet, 3, intChunks::add);
+
+        assertThat(chunks).containsExactly(List.of(1, 2, 3), List.of(4, 5, 10), List.of(11, 20));
+        assertThat(intChunks).containsExactly(new int[]{1, 2, 3}, new int[]{4, 5, 10}, new int[]{11, 20});
+    }
+
+    @Test
+    void forEachChunk_primitiveVariants() {
+        List<List<Integer>> rangeChunks = new ArrayList<>();
+        List<long[]> longChunks = new ArrayList<>();
+        List<long[]> epochDayChunks = new ArrayList<>();
+        LocalDate jan30 = LocalDate.of(2024, 1, 30);
+
+        IntRange.between(1, 4).forEachChunk(3, rangeChunks::add);
+        LongRange.forEachLongChunk(RangeSet.of(LongRange.between(1L, 2L), LongRange.between(7L, 8L)), 3, longChunks::add);
+        LocalDateRange.forEachEpochDayChunk(LocalDateRange.between(jan30, jan30.plusDays(2)), 2, epochDayChunks::add);
+
+        assertThat(rangeChunks).containsExactly(List.of(1, 2, 3), List.of(4));
+        assertThat(longChunks).containsExactly(new long[]{1, 2, 7}, new long[]{8});
+        assertThat(epochDayChunks).containsExactly(
+                new long[]{jan30.toEpochDay(), jan30.toEpochDay() + 1},
+                new long[]{jan30.toEpochDay() + 2});
+    }
+
+
+    @Test
+    void mergeOverlappingAndAdjacent_parallelStream() {
+        List<Range<Integer>> ranges = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ranges.add(IntRange.between(i * 10, i * 10 + (i % 3 == 0 ? 10 : 5)));
+        }
+        RangeSet<Integer> parallel = ranges::parallelStream;
+
+        RangeSet<Integer> merged = RangeSet.mergeOverlappingAndAdjacent(parallel, RangeSet.of());
+
+        assertThat(merged.streamRanges()).containsExactlyElementsOf(RangeSet.of(ranges).getRanges());
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.LocalDateRange;
+import org.repozoo.commons.range.factories.LocalDateTimeRange;
+import org.repozoo.commons.range.factories.Recurrence;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+
+import static java.time.DayOfWeek.FRIDAY;
+import static java.time.DayOfWeek.MONDAY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceTest {
+
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+    private static final LocalTime FIVE_PM = LocalTime.of(17, 0);
+
+    @Test
+    void contains_weekly() {
+        Recurrence businessHours = Recurrence.weekly(EnumSet.range(MONDAY, FRIDAY), NINE, FIVE_PM)
+                .except(RangeSet.of(LocalDateRange.between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1))));
+
+        assertThat(businessHours.contains(LocalDateTime.of(2024, 1, 8, 9, 0))).isTrue();
+        assertThat(businessHours.contains(LocalDateTime.of(2024, 1, 8, 16, 59, 59))).isTrue();
+        assertThat(businessHours.contains(LocalDateTime.of(2024, 1, 8, 17, 0))).isFalse();
+        assertThat(businessHours.contains(LocalDateTime.of(2024, 1, 6, 10, 0))).isFalse();
+        assertThat(businessHours.contains(LocalDateTime.of(2024, 1, 1, 10, 0))).isFalse();
+    }
+
+    @Test
+    void within_expandsOccurrencesWithinBounds() {
+        Recurrence mondays = Recurrence.weekly(EnumSet.of(MONDAY), NINE, FIVE_PM);
+
+        RangeSet<LocalDateTime> occurrences = mondays.within(LocalDateTimeRange.between(
+                LocalDateTime.of(2024, 1, 1, 12, 0),
+                LocalDateTime.of(2024, 1, 15, 10, 0)));
+
+        assertThat(occurrences.getRanges()).containsExactly(
+                occurrence(LocalDate.of(2024, 1, 1), LocalTime.of(12, 0), FIVE_PM),
+                occurrence(LocalDate.of(2024, 1, 8), NINE, FIVE_PM),
+                occurrence(LocalDate.of(2024, 1, 15), NINE, LocalTime.of(10, 0).plusNanos(1)));
+    }
+
+    @Test
+    void monthly_and_nthWeekday() {
+        Range<LocalDateTime> year = LocalDateTimeRange.between(
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 12, 31, 23, 59));
+
+        assertThat(Recurrence.monthly(31, NINE, FIVE_PM).within(year).getRanges()).hasSize(7);
+        assertThat(Recurrence.nthWeekday(-1, FRIDAY, NINE, FIVE_PM).within(year).streamRanges()
+                .map(range -> range.min().toLocalDate()))
+                .hasSize(12)
+                .contains(LocalDate.of(2024, 5, 31), LocalDate.of(2024, 2, 23));
+        assertThat(Recurrence.nthWeekday(5, DayOfWeek.THURSDAY, NINE, FIVE_PM).within(year).getRanges()).hasSize(4);
+    }
+
+    @Test
+    void daily_allDay_mergesAdjacentOccurrences() {
+        Recurrence allDay = Recurrence.daily(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT)
+                .except(RangeSet.of(LocalDateRange.between(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 6))));
+
+        RangeSet<LocalDateTime> occurrences = allDay.within(LocalDateTimeRange.between(
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 10, 0, 0)));
+
+        assertThat(occurrences.getRanges()).containsExactly(
+                LocalDateTimeRange.between(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDate.of(2024, 1, 4).atTime(LocalTime.MAX)),
+                LocalDateTimeRange.between(LocalDateTime.of(2024, 1, 7, 0, 0), LocalDateTime.of(2024, 1, 10, 0, 0)));
+    }
+
+    @Test
+    void intersection_and_removeFrom() {
+        Recurrence lunch = Recurrence.daily(LocalTime.of(12, 0), LocalTime.of(13, 0));
+        RangeSet<LocalDateTime> bookings = RangeSet.of(
+                LocalDateTimeRange.between(LocalDateTime.of(2024, 1, 1, 10, 0), LocalDateTime.of(2024, 1, 1, 14, 0)),
+                LocalDateTimeRange.between(LocalDateTime.of(2030, 6, 1, 12, 30), LocalDateTime.of(2030, 6, 1, 15, 0)));
+
+        assertThat(lunch.intersection(bookings).getRanges()).containsExactly(
+                occurrence(LocalDate.of(2024, 1, 1), LocalTime.of(12, 0), LocalTime.of(13, 0)),
+                occurrence(LocalDate.of(2030, 6, 1), LocalTime.of(12, 30), LocalTime.of(13, 0)));
+        assertThat(lunch.removeFrom(bookings).getRanges()).containsExactly(
+                occurrence(LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), LocalTime.of(12, 0)),
+                LocalDateTimeRange.between(LocalDateTime.of(2024, 1, 1, 13, 0), LocalDateTime.of(2024, 1, 1, 14, 0)),
+                LocalDateTimeRange.between(LocalDateTime.of(2030, 6, 1, 13, 0), LocalDateTime.of(2030, 6, 1, 15, 0)));
+    }
+
+    @Test
+    void windowCrossingMidnight_isRejected() {
+        assertThatThrownBy(() -> Recurrence.daily(LocalTime.of(22, 0), LocalTime.of(2, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Range<LocalDateTime> occurrence(LocalDate date, LocalTime from, LocalTime to) {
+        return LocalDateTimeRange.between(date.atTime(from), date.atTime(to).minusNanos(1));
+    }
+}
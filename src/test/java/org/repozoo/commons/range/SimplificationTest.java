@@ -0,0 +1,85 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimplificationTest {
+
+    private static final RangeSet<Integer> RANGE_SET = RangeSet.of(
+            IntRange.between(1, 3), IntRange.between(5, 6), IntRange.between(9, 9), IntRange.between(20, 30), IntRange.between(33, 40));
+
+    @Test
+    void coalesce() {
+        Simplification<Integer> simplification = RANGE_SET.coalesce(2);
+
+        assertThat(simplification.rangeSet().getRanges()).containsExactly(
+                IntRange.between(1, 9), IntRange.between(20, 40));
+        assertThat(simplification.valuesAdded()).isEqualTo(1 + 2 + 2);
+        assertThat(simplification.valuesRemoved()).isZero();
+        assertThat(RANGE_SET.coalesce(0).rangeSet()).isEqualTo(RANGE_SET);
+        assertThatThrownBy(() -> RANGE_SET.coalesce(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void withoutDistanceFunction_coalesceCountsAtMostMaxGapSteps() {
+        RangeFactory.CreateRange<Integer> createRange = RangeFactory.forType(Integer.class)
+                .withComparator(Comparator.naturalOrder())
+                .withIterator(i -> i + 1, i -> i - 1)
+                .build();
+        RangeSet<Integer> rangeSet = RangeSet.of(
+                createRange.between(0, 1), createRange.between(4, 5), createRange.between(2_000_000_000, 2_000_000_001));
+
+        Simplification<Integer> simplification = rangeSet.coalesce(3);
+
+        assertThat(simplification.rangeSet().getRanges()).containsExactly(
+                createRange.between(0, 5), createRange.between(2_000_000_000, 2_000_000_001));
+        assertThat(simplification.valuesAdded()).isEqualTo(2);
+        assertThatThrownBy(() -> rangeSet.reduceTo(2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void dropShorterThan() {
+        Simplification<Integer> simplification = RANGE_SET.dropShorterThan(3);
+
+        assertThat(simplification.rangeSet().getRanges()).containsExactly(
+                IntRange.between(1, 3), IntRange.between(20, 30), IntRange.between(33, 40));
+        assertThat(simplification.valuesRemoved()).isEqualTo(3);
+        assertThat(simplification.valuesAdded()).isZero();
+    }
+
+    @Test
+    void reduceTo_closesSmallestGapsFirst() {
+        // gaps: 1, 2, 10, 2
+        assertThat(RANGE_SET.reduceTo(3).rangeSet().getRanges()).containsExactly(
+                IntRange.between(1, 9), IntRange.between(20, 30), IntRange.between(33, 40));
+        assertThat(RANGE_SET.reduceTo(3).valuesAdded()).isEqualTo(1 + 2);
+        assertThat(RANGE_SET.reduceTo(2).rangeSet().getRanges()).containsExactly(
+                IntRange.between(1, 9), IntRange.between(20, 40));
+        assertThat(RANGE_SET.reduceTo(2).valuesAdded()).isEqualTo(1 + 2 + 2);
+        assertThat(RANGE_SET.reduceTo(1).rangeSet().getRanges()).containsExactly(IntRange.between(1, 40));
+        assertThat(RANGE_SET.reduceTo(10).rangeSet()).isEqualTo(RANGE_SET);
+        assertThat(RangeSet.<Integer>empty().reduceTo(1).rangeSet().isEmpty()).isTrue();
+        assertThatThrownBy(() -> RANGE_SET.reduceTo(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reduceTo_manyRanges() {
+        List<Range<Integer>> ranges = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ranges.add(IntRange.between(i * 10, i * 10 + 8 - i % 3));
+        }
+        RangeSet<Integer> rangeSet = RangeSet.of(ranges);
+
+        Simplification<Integer> simplification = rangeSet.reduceTo(1_000);
+
+        assertThat(simplification.rangeSet().getRanges()).hasSize(1_000);
+        assertThat(simplification.rangeSet().countValues()).isEqualTo(rangeSet.countValues() + simplification.valuesAdded());
+    }
+}
@@ -0,0 +1,84 @@
+package org.repozoo.commons.range;
+
+import org.junit.jupiter.api.Test;
+import org.repozoo.commons.range.factories.IntRange;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowedRangeSetTest {
+
+    @Test
+    void append_mergesNearHead() {
+        WindowedRangeSet<Integer> window = WindowedRangeSet.create();
+
+        window.append(IntRange.between(1, 3));
+        window.append(IntRange.between(10, 12));
+        window.append(IntRange.between(20, 22));
+        window.append(IntRange.between(13, 15));
+        window.append(IntRange.between(5, 5));
+
+        assertThat(window.getRanges()).containsExactly(
+                IntRange.between(1, 3),
+                IntRange.between(5, 5),
+                IntRange.between(10, 15),
+                IntRange.between(20, 22));
+
+        window.append(IntRange.between(4, 21));
+
+        assertThat(window.getRanges()).containsExactly(IntRange.between(1, 22));
+    }
+
+    @Test
+    void advanceWatermark_expiresTail() {
+        WindowedRangeSet<Integer> window = WindowedRangeSet.create();
+        window.append(IntRange.between(1, 5));
+        window.append(IntRange.between(8, 9));
+        window.append(IntRange.between(12, 14));
+
+        window.advanceWatermark(4);
+        assertThat(window.getRanges()).containsExactly(
+                IntRange.between(4, 5),
+                IntRange.between(8, 9),
+                IntRange.between(12, 14));
+
+        window.advanceWatermark(10);
+        assertThat(window.getRanges()).containsExactly(IntRange.between(12, 14));
+
+        window.advanceWatermark(2);
+        assertThat(window.watermark()).contains(10);
+
+        window.append(IntRange.between(6, 11));
+        assertThat(window.getRanges()).containsExactly(IntRange.between(10, 14));
+        assertThat(window.contains(9)).isFalse();
+        assertThat(window.contains(10)).isTrue();
+    }
+
+    @Test
+    void slidingWindow_matchesRangeSet() {
+        Random random = new Random(31);
+        WindowedRangeSet<Integer> window = WindowedRangeSet.create();
+        RangeSet<Integer> expected = RangeSet.empty();
+        int watermark = 0;
+
+        for (int tick = 0; tick < 2_000; tick++) {
+            int min = watermark + random.nextInt(200);
+            Range<Integer> range = IntRange.between(min, min + random.nextInt(10));
+            window.append(range);
+            expected = expected.add(range);
+            if (tick % 10 == 0) {
+                watermark += random.nextInt(60);
+                window.advanceWatermark(watermark);
+                expected = expected.remove(IntRange.between(Integer.MIN_VALUE, watermark - 1));
+            }
+            if (tick % 100 == 0) {
+                assertThat(window.getRanges()).isEqualTo(expected.getRanges());
+                assertThat(window.snapshot().getRanges()).isEqualTo(expected.getRanges());
+            }
+        }
+        for (int value = watermark - 10; value < watermark + 250; value++) {
+            assertThat(window.contains(value)).isEqualTo(expected.contains(value));
+        }
+    }
+}